@@ -0,0 +1,57 @@
+package com.jcw.checklist.jmh;
+
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.model.UserChecklistProgress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic items x users data, so every run benchmarks the same checklist.
+ */
+final class ChecklistFixtures {
+
+  static final long SEED = 42;
+
+  final List<ChecklistItem> items;
+  final List<User> users;
+  final List<UserChecklistProgress> progresses;
+
+  ChecklistFixtures(int itemCount, int userCount) {
+    Random random = new Random(SEED);
+
+    items = new ArrayList<>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      ChecklistItem item = new ChecklistItem();
+      item.setId((long) i + 1);
+      item.setContent("Item " + (i + 1));
+      item.setDisplayOrder((i + 1) * ChecklistItem.ORDER_GAP);
+      items.add(item);
+    }
+
+    users = new ArrayList<>(userCount);
+    for (int u = 0; u < userCount; u++) {
+      User user = new User();
+      user.setId(new UUID(SEED, u));
+      user.setUsername("user" + u);
+      users.add(user);
+    }
+
+    // About half the cells checked, matching a checklist in active use
+    progresses = new ArrayList<>();
+    for (ChecklistItem item : items) {
+      for (User user : users) {
+        if (random.nextBoolean()) {
+          UserChecklistProgress progress = new UserChecklistProgress();
+          progress.setChecklistItemId(item.getId());
+          progress.setUserId(user.getId());
+          progress.setChecked(true);
+          progresses.add(progress);
+        }
+      }
+    }
+  }
+}
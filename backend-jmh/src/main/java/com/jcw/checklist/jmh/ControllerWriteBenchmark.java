@@ -0,0 +1,114 @@
+package com.jcw.checklist.jmh;
+
+import com.jcw.checklist.SharedChecklistApplication;
+import com.jcw.checklist.controller.ChecklistController;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.UserRepository;
+import com.jcw.checklist.service.ChecklistImportService;
+import com.jcw.checklist.service.ParticipantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@code toggleItem} and {@code reorderItems} end to end through the controller against a fresh
+ * in-memory H2 database per trial, seeded with an items x users checklist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerWriteBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int items;
+
+  @Param({"1", "10", "50"})
+  private int users;
+
+  private ConfigurableApplicationContext context;
+  private ChecklistController controller;
+  private ChecklistFixtures fixtures;
+  private Long checklistId;
+  private List<Long> itemIds;
+  private ChecklistController.ReorderRequest forward;
+  private ChecklistController.ReorderRequest reversed;
+  private int cursor;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(SharedChecklistApplication.class)
+        .profiles("dev", "h2")
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:jmh-" + items + "x" + users + ";DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN");
+    controller = context.getBean(ChecklistController.class);
+
+    fixtures = new ChecklistFixtures(items, users);
+    checklistId = context.getBean(ChecklistImportService.class)
+        .create("Benchmark", fixtures.items.stream().map(ChecklistItem::getContent).iterator())
+        .getId();
+    itemIds = context.getBean(ChecklistItemRepository.class).findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId)
+        .stream().map(ChecklistItem::getId).toList();
+
+    UserRepository userRepo = context.getBean(UserRepository.class);
+    ParticipantService participantService = context.getBean(ParticipantService.class);
+    for (User user : fixtures.users) {
+      userRepo.save(user);
+      participantService.join(checklistId, user.getId());
+    }
+
+    forward = new ChecklistController.ReorderRequest();
+    forward.setItemIds(itemIds);
+    reversed = new ChecklistController.ReorderRequest();
+    List<Long> reversedIds = new ArrayList<>(itemIds);
+    Collections.reverse(reversedIds);
+    reversed.setItemIds(reversedIds);
+
+    // Fill about half the cells so toggles hit both existing and missing rows
+    IntStream.range(0, fixtures.progresses.size()).forEach(i -> toggle());
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void toggleItem() {
+    toggle();
+  }
+
+  @Benchmark
+  public void reorderItems() {
+    controller.reorderItems(checklistId, (cursor++ & 1) == 0 ? reversed : forward);
+  }
+
+  private void toggle() {
+    int cell = cursor++ % (items * users);
+    controller.toggleItem(checklistId, itemIds.get(cell / users), fixtures.users.get(cell % users).getId());
+  }
+}
@@ -0,0 +1,57 @@
+package com.jcw.checklist.jmh;
+
+import com.jcw.checklist.cache.ProgressMatrix;
+import com.jcw.checklist.dto.ChecklistDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Progress matrix assembly behind {@code GET /api/checklists/{id}}: building the matrix from
+ * loaded rows on a cache miss, and turning it into per-item DTOs with username-keyed maps on
+ * every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProgressMatrixBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int items;
+
+  @Param({"1", "10", "50"})
+  private int users;
+
+  private ChecklistFixtures fixtures;
+  private ProgressMatrix matrix;
+
+  @Setup
+  public void setUp() {
+    fixtures = new ChecklistFixtures(items, users);
+    matrix = ProgressMatrix.build(fixtures.items, fixtures.users, fixtures.progresses);
+  }
+
+  @Benchmark
+  public ProgressMatrix build() {
+    return ProgressMatrix.build(fixtures.items, fixtures.users, fixtures.progresses);
+  }
+
+  @Benchmark
+  public List<ChecklistDTO> toDTOs() {
+    return matrix.toDTOs();
+  }
+}
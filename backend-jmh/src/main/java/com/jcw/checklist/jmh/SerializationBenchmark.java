@@ -0,0 +1,52 @@
+package com.jcw.checklist.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.cache.ProgressMatrix;
+import com.jcw.checklist.dto.ChecklistDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the {@link ChecklistDTO} list returned by {@code GET /api/checklists/{id}}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int items;
+
+  @Param({"1", "10", "50"})
+  private int users;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private List<ChecklistDTO> dtos;
+
+  @Setup
+  public void setUp() {
+    ChecklistFixtures fixtures = new ChecklistFixtures(items, users);
+    dtos = ProgressMatrix.build(fixtures.items, fixtures.users, fixtures.progresses).toDTOs();
+  }
+
+  @Benchmark
+  public byte[] writeJson() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(dtos);
+  }
+}
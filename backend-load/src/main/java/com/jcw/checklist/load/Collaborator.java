@@ -0,0 +1,176 @@
+package com.jcw.checklist.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One simulated user: signs in, then opens checklists, ticks items, reorders and adds items
+ * according to the configured mix, pausing for a think time between actions.
+ * <p>
+ * Like the frontend, it acts on the last version of the checklist it fetched, so concurrent
+ * edits by other collaborators show up as conflicts and rejected requests in the report.
+ */
+class Collaborator implements Runnable {
+
+  private final LoadConfig config;
+  private final HttpClient http;
+  private final ObjectMapper objectMapper;
+  private final EndpointStats stats;
+  private final String baseUrl;
+  private final String username;
+  private final List<Long> checklistIds;
+  private final long measureFrom;
+  private final long deadline;
+  private final Random random;
+
+  private String userId;
+  private Long checklistId;
+  private List<Long> itemIds = new ArrayList<>();
+  private int added;
+
+  Collaborator(LoadConfig config, HttpClient http, ObjectMapper objectMapper, EndpointStats stats, String baseUrl,
+               String username, List<Long> checklistIds, long measureFrom, long deadline, long seed) {
+    this.config = config;
+    this.http = http;
+    this.objectMapper = objectMapper;
+    this.stats = stats;
+    this.baseUrl = baseUrl;
+    this.username = username;
+    this.checklistIds = checklistIds;
+    this.measureFrom = measureFrom;
+    this.deadline = deadline;
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public void run() {
+    try {
+      JsonNode user = send("GET /api/user/current", get("/user/current"));
+      if (user == null) {
+        return;
+      }
+      userId = user.get("id").asText();
+      open();
+
+      while (System.nanoTime() < deadline) {
+        switch (config.pick(random.nextDouble())) {
+          case OPEN -> open();
+          case TOGGLE -> toggle();
+          case REORDER -> reorder();
+          case ADD -> add();
+        }
+        think();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      System.err.println(username + " stopped: " + e);
+    }
+  }
+
+  private void open() throws InterruptedException {
+    send("GET /api/checklists", get("/checklists?limit=100"));
+    checklistId = checklistIds.get(random.nextInt(checklistIds.size()));
+    JsonNode items = send("GET /api/checklists/{id}", get("/checklists/" + checklistId));
+    if (items != null) {
+      itemIds = new ArrayList<>();
+      items.forEach(item -> itemIds.add(item.get("id").asLong()));
+    }
+  }
+
+  private void toggle() throws InterruptedException {
+    if (itemIds.isEmpty()) {
+      return;
+    }
+    Long itemId = itemIds.get(random.nextInt(itemIds.size()));
+    send("POST /api/checklists/{id}/item/{itemId}/user/{userId}/toggle",
+        request("/checklists/" + checklistId + "/item/" + itemId + "/user/" + userId + "/toggle")
+            .POST(HttpRequest.BodyPublishers.noBody()));
+  }
+
+  private void reorder() throws InterruptedException {
+    // Move one item somewhere else, as a drag in the UI would, then send the whole order
+    List<Long> order = new ArrayList<>(itemIds);
+    if (order.size() < 2) {
+      return;
+    }
+    Long moved = order.remove(random.nextInt(order.size()));
+    order.add(random.nextInt(order.size() + 1), moved);
+    JsonNode result = send("PUT /api/checklists/{id}/reorder", request("/checklists/" + checklistId + "/reorder")
+        .PUT(json(Map.of("itemIds", order))));
+    if (result != null) {
+      itemIds = order;
+    }
+  }
+
+  private void add() throws InterruptedException {
+    String content = username + " task " + (++added);
+    JsonNode item = send("POST /api/checklists/{id}/items", request("/checklists/" + checklistId + "/items")
+        .POST(json(Map.of("content", content))));
+    if (item != null) {
+      itemIds.add(item.get("id").asLong());
+    }
+  }
+
+  private void think() throws InterruptedException {
+    long meanMillis = config.thinkTime().toMillis();
+    if (meanMillis > 0) {
+      Thread.sleep((long) (-meanMillis * Math.log(1 - random.nextDouble())));
+    }
+  }
+
+  private HttpRequest.Builder get(String path) {
+    return request(path).GET();
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Accept", "application/json")
+        .header("Content-Type", "application/json")
+        .header("X-Dev-User", username);
+  }
+
+  private HttpRequest.BodyPublisher json(Object body) {
+    try {
+      return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Sends the request and records it under {@code endpoint}.
+   *
+   * @return the parsed body, an empty object for a successful empty response, or null on failure
+   */
+  private JsonNode send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+    long start = System.nanoTime();
+    int status = 0;
+    JsonNode body = null;
+    try {
+      HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+      status = response.statusCode();
+      if (status < 400) {
+        body = response.body().length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+      }
+    } catch (IOException e) {
+      // Counted as status 0: connection refused, reset or timed out
+    }
+    long end = System.nanoTime();
+    if (start >= measureFrom && end <= deadline) {
+      stats.record(endpoint, status, end - start);
+    }
+    return body;
+  }
+}
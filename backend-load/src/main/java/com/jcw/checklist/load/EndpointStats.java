@@ -0,0 +1,66 @@
+package com.jcw.checklist.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and status counts per endpoint.
+ */
+class EndpointStats {
+
+  // Track up to a minute at microsecond resolution with three significant digits
+  private static final long MAX_LATENCY_MICROS = 60_000_000L;
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  void record(String endpoint, int status, long latencyNanos) {
+    Endpoint stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+    stats.latencies.recordValue(Math.min(latencyNanos / 1000, MAX_LATENCY_MICROS));
+    stats.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    if (status == 0 || status >= 400) {
+      stats.errors.increment();
+    }
+  }
+
+  void print(PrintStream out, Duration elapsed) {
+    double seconds = elapsed.toMillis() / 1000.0;
+    out.printf("%n%-44s %8s %9s %7s %9s %9s %9s %9s  %s%n",
+        "endpoint", "count", "req/s", "err%", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+
+    Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+    long totalErrors = 0;
+    for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+      Endpoint stats = entry.getValue();
+      total.add(stats.latencies);
+      totalErrors += stats.errors.sum();
+      print(out, entry.getKey(), stats.latencies, stats.errors.sum(), seconds, stats.statuses.toString());
+    }
+    print(out, "all", total, totalErrors, seconds, "");
+  }
+
+  private static void print(PrintStream out, String name, Histogram latencies, long errors, double seconds,
+                            String statuses) {
+    long count = latencies.getTotalCount();
+    out.printf("%-44s %8d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f  %s%n", name, count, count / seconds,
+        count == 0 ? 0.0 : 100.0 * errors / count,
+        latencies.getValueAtPercentile(50) / 1000.0,
+        latencies.getValueAtPercentile(99) / 1000.0,
+        latencies.getValueAtPercentile(99.9) / 1000.0,
+        latencies.getMaxValue() / 1000.0,
+        statuses);
+  }
+
+  private static final class Endpoint {
+    final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+    final LongAdder errors = new LongAdder();
+  }
+}
@@ -0,0 +1,82 @@
+package com.jcw.checklist.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code --key=value} arguments.
+ *
+ * @param baseUrl     API root of a running server; null starts the app embedded on H2
+ * @param profiles    Spring profiles for the embedded app
+ * @param users       simulated collaborators, each on its own virtual thread
+ * @param checklists  checklists seeded before the run
+ * @param items       items per seeded checklist
+ * @param thinkTime   mean pause between a collaborator's actions, exponentially distributed
+ * @param mix         relative weight of each action
+ */
+record LoadConfig(String baseUrl, String[] profiles, int users, Duration warmup, Duration duration,
+                  int checklists, int items, Duration thinkTime, Map<Action, Integer> mix, long seed) {
+
+  enum Action { OPEN, TOGGLE, REORDER, ADD }
+
+  static LoadConfig parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value but got " + arg);
+      }
+      options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+    }
+
+    return new LoadConfig(
+        options.get("base-url"),
+        options.getOrDefault("profiles", "dev,h2").split(","),
+        Integer.parseInt(options.getOrDefault("users", "50")),
+        duration(options.getOrDefault("warmup", "10s")),
+        duration(options.getOrDefault("duration", "60s")),
+        Integer.parseInt(options.getOrDefault("checklists", "10")),
+        Integer.parseInt(options.getOrDefault("items", "50")),
+        duration(options.getOrDefault("think-time", "500ms")),
+        mix(options.getOrDefault("mix", "open=40,toggle=45,reorder=5,add=10")),
+        Long.parseLong(options.getOrDefault("seed", "42")));
+  }
+
+  /**
+   * Picks an action with probability proportional to its weight, given a uniform value in [0, 1).
+   */
+  Action pick(double uniform) {
+    int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    double target = uniform * total;
+    for (Map.Entry<Action, Integer> entry : mix.entrySet()) {
+      target -= entry.getValue();
+      if (target < 0) {
+        return entry.getKey();
+      }
+    }
+    return Action.OPEN;
+  }
+
+  private static Duration duration(String value) {
+    if (value.endsWith("ms")) {
+      return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+    }
+    if (value.endsWith("s")) {
+      return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+    }
+    if (value.endsWith("m")) {
+      return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+    }
+    return Duration.ofMillis(Long.parseLong(value));
+  }
+
+  private static Map<Action, Integer> mix(String value) {
+    Map<Action, Integer> mix = new EnumMap<>(Action.class);
+    for (String part : value.split(",")) {
+      String[] weight = part.split("=");
+      mix.put(Action.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+    }
+    return mix;
+  }
+}
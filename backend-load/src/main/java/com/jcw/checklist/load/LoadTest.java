@@ -0,0 +1,120 @@
+package com.jcw.checklist.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.SharedChecklistApplication;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives concurrent collaborators against the REST API and prints per-endpoint throughput,
+ * error rates and latency percentiles.
+ * <p>
+ * Without {@code --base-url} the app is started in-process on a fresh H2 database and one user
+ * is created per collaborator. Against an external server (which must run the dev profile so
+ * {@code X-Dev-User} selects the user) collaborators without a matching user act as alice.
+ * See {@link LoadConfig} for the options.
+ */
+public class LoadTest {
+
+  public static void main(String[] args) throws Exception {
+    LoadConfig config = LoadConfig.parse(args);
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    ConfigurableApplicationContext app = null;
+    String baseUrl = config.baseUrl();
+    if (baseUrl == null) {
+      app = new SpringApplicationBuilder(SharedChecklistApplication.class)
+          .profiles(config.profiles())
+          .run(
+              "--server.port=0",
+              "--spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+              "--spring.jpa.show-sql=false",
+              "--logging.level.root=WARN");
+      baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api";
+    }
+
+    try (ExecutorService collaborators = Executors.newVirtualThreadPerTaskExecutor();
+         HttpClient http = HttpClient.newBuilder()
+             .version(HttpClient.Version.HTTP_1_1)
+             .executor(Executors.newVirtualThreadPerTaskExecutor())
+             .connectTimeout(Duration.ofSeconds(10))
+             .build()) {
+      List<String> usernames = new ArrayList<>();
+      for (int i = 0; i < config.users(); i++) {
+        usernames.add("load-user-" + i);
+      }
+      if (app != null) {
+        createUsers(app.getBean(UserRepository.class), usernames);
+      }
+      List<Long> checklistIds = createChecklists(http, objectMapper, baseUrl, config);
+
+      System.out.printf("Running %d collaborators against %s for %s after %s warmup%n",
+          config.users(), baseUrl, config.duration(), config.warmup());
+      EndpointStats stats = new EndpointStats();
+      long measureFrom = System.nanoTime() + config.warmup().toNanos();
+      long deadline = measureFrom + config.duration().toNanos();
+      for (int i = 0; i < usernames.size(); i++) {
+        collaborators.submit(new Collaborator(config, http, objectMapper, stats, baseUrl, usernames.get(i), checklistIds,
+            measureFrom, deadline, config.seed() + i));
+      }
+      collaborators.shutdown();
+      collaborators.awaitTermination(config.warmup().plus(config.duration()).toSeconds() + 60, TimeUnit.SECONDS);
+
+      stats.print(System.out, config.duration());
+    } finally {
+      if (app != null) {
+        app.close();
+      }
+    }
+  }
+
+  private static void createUsers(UserRepository userRepo, List<String> usernames) {
+    List<User> users = new ArrayList<>();
+    for (String username : usernames) {
+      User user = new User();
+      user.setId(UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)));
+      user.setUsername(username);
+      users.add(user);
+    }
+    userRepo.saveAll(users);
+  }
+
+  private static List<Long> createChecklists(HttpClient http, ObjectMapper objectMapper, String baseUrl,
+                                             LoadConfig config) throws IOException, InterruptedException {
+    List<Long> ids = new ArrayList<>();
+    for (int c = 0; c < config.checklists(); c++) {
+      List<String> items = new ArrayList<>();
+      for (int i = 0; i < config.items(); i++) {
+        items.add("Load item " + (i + 1));
+      }
+      HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/checklists"))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofByteArray(
+              objectMapper.writeValueAsBytes(Map.of("name", "Load checklist " + (c + 1), "items", items))))
+          .build();
+      HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+      if (response.statusCode() >= 400) {
+        throw new IllegalStateException("Creating checklists failed with status " + response.statusCode());
+      }
+      ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,248 @@
+package com.jcw.checklist.cache;
+
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a {@link ProgressMatrix} per recently viewed checklist so hot checklists are served
+ * without touching the database.
+ * <p>
+ * Entries are evicted least-recently-used once either the entry count or the total number of
+ * matrix cells exceeds its budget. Progress writes go through {@link #applyProgress}; structural
+ * changes (items added or reordered, participants joining or leaving) must {@link #invalidate} instead.
+ * <p>
+ * Each entry records the checklist version it is known to include. A reader passes the version
+ * it is about to tag the response with and an older entry is reloaded, so a write that has
+ * committed but not yet reached the cache is never served under its own version.
+ */
+@Component
+public class ChecklistProgressCache {
+
+  private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final int maxEntries;
+  private final long maxCells;
+  private long totalCells;
+  // One token per checklist being loaded; a write to the checklist drops it, so a load that
+  // raced the write is not cached
+  private final Map<Long, Object> loading = new HashMap<>();
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  public ChecklistProgressCache(MeterRegistry registry,
+                                @Value("${checklist.progress-cache.max-entries:1000}") int maxEntries,
+                                @Value("${checklist.progress-cache.max-cells:50000000}") long maxCells) {
+    this.maxEntries = maxEntries;
+    this.maxCells = maxCells;
+    this.hits = Counter.builder("checklist.progress.cache.requests").tag("result", "hit").register(registry);
+    this.misses = Counter.builder("checklist.progress.cache.requests").tag("result", "miss").register(registry);
+    this.evictions = Counter.builder("checklist.progress.cache.evictions").register(registry);
+    Gauge.builder("checklist.progress.cache.size", this, ChecklistProgressCache::size).register(registry);
+    Gauge.builder("checklist.progress.cache.cells", this, ChecklistProgressCache::cells).register(registry);
+  }
+
+  /**
+   * The checklist's matrix, loaded unless the cached one includes at least the given version.
+   * The version must have been read before calling, so the loaded matrix includes it too.
+   */
+  public ProgressMatrix get(Long checklistId, long version, Supplier<ProgressMatrix> loader) {
+    Object token = new Object();
+    synchronized (this) {
+      Entry cached = entries.get(checklistId);
+      if (cached != null && cached.version >= version) {
+        hits.increment();
+        return cached.matrix;
+      }
+      // A concurrent load of the same checklist loses its token and isn't cached; this one is newer
+      loading.put(checklistId, token);
+    }
+    misses.increment();
+
+    ProgressMatrix loaded;
+    try {
+      loaded = loader.get();
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        loading.remove(checklistId, token);
+      }
+      throw e;
+    }
+    synchronized (this) {
+      if (loading.remove(checklistId, token) && loaded.cells() <= maxCells) {
+        Entry previous = entries.get(checklistId);
+        if (previous == null || previous.version < version) {
+          remove(checklistId);
+          entries.put(checklistId, new Entry(loaded, version));
+          totalCells += loaded.cells();
+          evict();
+        }
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Writes a progress change not yet given a version through to the cached matrix, dropping the
+   * entry if the item or user isn't part of it. The entry's version only moves once the change
+   * is stored, through {@link #advanceVersion}.
+   */
+  public synchronized void applyProgress(Long checklistId, Long itemId, UUID userId, boolean checked) {
+    loading.remove(checklistId);
+    Entry entry = entries.get(checklistId);
+    if (entry != null && !entry.matrix.set(itemId, userId, checked)) {
+      remove(checklistId);
+    }
+  }
+
+  /**
+   * Writes the changes that produced the given version through to the cached matrix. An entry
+   * that already includes them is left alone, and one that missed an earlier version is dropped.
+   */
+  public synchronized void applyProgress(Long checklistId, long version, List<ProgressChangeDTO> changes) {
+    loading.remove(checklistId);
+    Entry entry = entries.get(checklistId);
+    if (entry == null || entry.version >= version) {
+      return;
+    }
+    if (entry.version != version - 1) {
+      remove(checklistId);
+      return;
+    }
+    for (ProgressChangeDTO change : changes) {
+      if (!entry.matrix.set(change.getItemId(), change.getUserId(), change.isChecked())) {
+        remove(checklistId);
+        return;
+      }
+    }
+    entry.version = version;
+  }
+
+  /**
+   * Marks the entry as including the given version once the changes that produced it, already
+   * written through, are stored.
+   */
+  public synchronized void advanceVersion(Long checklistId, long version) {
+    Entry entry = entries.get(checklistId);
+    if (entry != null && entry.version == version - 1) {
+      entry.version = version;
+    }
+  }
+
+  public synchronized boolean hasParticipant(Long checklistId, UUID userId) {
+    Entry entry = entries.get(checklistId);
+    return entry != null && entry.matrix.hasUser(userId);
+  }
+
+  /**
+   * The cached checked flag for an item and user, or null if it isn't cached. Doesn't count as a hit.
+   */
+  public synchronized Boolean cachedProgress(Long checklistId, Long itemId, UUID userId) {
+    Entry entry = entries.get(checklistId);
+    return entry == null ? null : entry.matrix.get(itemId, userId);
+  }
+
+  /**
+   * Whether the cached matrix lists the item; false if the checklist isn't cached. Doesn't count as a hit.
+   */
+  public synchronized boolean cachedHasItem(Long checklistId, Long itemId) {
+    Entry entry = entries.get(checklistId);
+    return entry != null && entry.matrix.hasItem(itemId);
+  }
+
+  /**
+   * Number of items in the cached matrix, or -1 if the checklist isn't cached. Doesn't count as a hit.
+   */
+  public synchronized int cachedItemCount(Long checklistId) {
+    Entry entry = entries.get(checklistId);
+    return entry == null ? -1 : entry.matrix.itemCount();
+  }
+
+  public synchronized void invalidate(Long checklistId) {
+    loading.remove(checklistId);
+    remove(checklistId);
+  }
+
+  /**
+   * Writes the changes that produced the given version through once the current transaction
+   * commits, or right away outside one, so a rollback never leaves them cached.
+   */
+  public void applyProgressAfterCommit(Long checklistId, long version, List<ProgressChangeDTO> changes) {
+    afterCommit(() -> applyProgress(checklistId, version, changes));
+  }
+
+  /**
+   * Invalidates the entry once the current transaction commits, or right away outside one, so
+   * no reader can cache the state from before the change in between.
+   */
+  public void invalidateAfterCommit(Long checklistId) {
+    afterCommit(() -> invalidate(checklistId));
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  public synchronized void invalidateAll() {
+    loading.clear();
+    entries.clear();
+    totalCells = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long cells() {
+    return totalCells;
+  }
+
+  private void remove(Long checklistId) {
+    Entry removed = entries.remove(checklistId);
+    if (removed != null) {
+      totalCells -= removed.matrix.cells();
+    }
+  }
+
+  private void evict() {
+    Iterator<Entry> eldest = entries.values().iterator();
+    while ((entries.size() > maxEntries || totalCells > maxCells) && eldest.hasNext()) {
+      totalCells -= eldest.next().matrix.cells();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  private static final class Entry {
+    final ProgressMatrix matrix;
+    long version;
+
+    Entry(ProgressMatrix matrix, long version) {
+      this.matrix = matrix;
+      this.version = version;
+    }
+  }
+}
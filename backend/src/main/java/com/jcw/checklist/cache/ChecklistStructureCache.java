@@ -0,0 +1,66 @@
+package com.jcw.checklist.cache;
+
+import com.jcw.checklist.model.Checklist;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate's second-level cache of checklist structure: {@link Checklist} rows, items and each
+ * checklist's item collection, plus cached summary and item list queries. Regions are bounded
+ * and expire as configured in {@code hibernate-cache.conf}.
+ * <p>
+ * Hibernate keeps most of it current by itself: entity writes update their region, any write to
+ * a table invalidates cached queries over it, and an item added to a checklist evicts that
+ * checklist's collection. What it can't see is a display order change reordering the cached
+ * collection, so reorders evict it here. Versions and counters change on every progress write,
+ * so they are kept out of it, in {@code checklist_stats}.
+ */
+@Component
+public class ChecklistStructureCache {
+
+  private static final String ITEMS_ROLE = Checklist.class.getName() + ".items";
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  /**
+   * Evicts the checklist's cached item order once the current transaction commits, so no
+   * reader can cache the old order again in between.
+   */
+  public void evictItemOrderAfterCommit(Long checklistId) {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        cache().evictCollectionData(ITEMS_ROLE, checklistId);
+      }
+    });
+  }
+
+  /**
+   * Evicts the checklist's row and item order, for changes made by another node's session.
+   */
+  public void evictChecklist(Long checklistId) {
+    Cache cache = cache();
+    cache.evictEntityData(Checklist.class, checklistId);
+    cache.evictCollectionData(ITEMS_ROLE, checklistId);
+  }
+
+  /**
+   * Evicts all cached query results. Hibernate only invalidates them for writes of this node.
+   */
+  public void evictQueries() {
+    cache().evictQueryRegions();
+  }
+
+  public void invalidateAll() {
+    cache().evictAllRegions();
+  }
+
+  private Cache cache() {
+    return entityManagerFactory.getCache().unwrap(Cache.class);
+  }
+}
@@ -0,0 +1,257 @@
+package com.jcw.checklist.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.jcw.checklist.dto.ChecklistDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.model.UserChecklistProgress;
+import com.jcw.checklist.repository.ItemProgressRow;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dense item x user progress for one checklist.
+ * <p>
+ * Items keep their display order and are addressed by row, users by column; the checked flags
+ * live in a single {@link BitSet} at {@code row * userCount + column}. Item ids are resolved to
+ * rows through an open-addressing {@code long -> int} table so lookups don't box.
+ */
+public class ProgressMatrix {
+
+  private final long[] itemIds;
+  private final String[] contents;
+  private final UUID[] userIds;
+  private final String[] usernames;
+  private final LongIndex itemIndex;
+  private final Map<UUID, Integer> userIndex;
+  private final BitSet checked;
+
+  private ProgressMatrix(long[] itemIds, String[] contents, UUID[] userIds, String[] usernames) {
+    this.itemIds = itemIds;
+    this.contents = contents;
+    this.userIds = userIds;
+    this.usernames = usernames;
+    this.itemIndex = new LongIndex(itemIds);
+    this.userIndex = new HashMap<>(userIds.length * 2);
+    for (int i = 0; i < userIds.length; i++) {
+      userIndex.put(userIds[i], i);
+    }
+    this.checked = new BitSet(itemIds.length * userIds.length);
+  }
+
+  /**
+   * Builds a matrix from items in display order, the users to show and the checklist's progress rows.
+   * Progress for items or users outside those lists is ignored.
+   */
+  public static ProgressMatrix build(List<ChecklistItem> items, List<User> users, List<UserChecklistProgress> progresses) {
+    long[] itemIds = new long[items.size()];
+    String[] contents = new String[items.size()];
+    for (int i = 0; i < items.size(); i++) {
+      itemIds[i] = items.get(i).getId();
+      contents[i] = items.get(i).getContent();
+    }
+
+    ProgressMatrix matrix = withUsers(itemIds, contents, users);
+    for (UserChecklistProgress progress : progresses) {
+      if (progress.isChecked()) {
+        matrix.set(progress.getChecklistItemId(), progress.getUserId(), true);
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Builds a matrix from item rows in display order, each item's rows adjacent, as returned by
+   * {@link com.jcw.checklist.repository.ChecklistItemRepository#streamWithCheckedProgress}.
+   * Checks by users outside the list are ignored.
+   */
+  public static ProgressMatrix fromRows(List<ItemProgressRow> rows, List<User> users) {
+    int itemCount = 0;
+    Long previous = null;
+    for (ItemProgressRow row : rows) {
+      if (!row.itemId().equals(previous)) {
+        itemCount++;
+        previous = row.itemId();
+      }
+    }
+
+    long[] itemIds = new long[itemCount];
+    String[] contents = new String[itemCount];
+    int item = -1;
+    previous = null;
+    for (ItemProgressRow row : rows) {
+      if (!row.itemId().equals(previous)) {
+        item++;
+        itemIds[item] = row.itemId();
+        contents[item] = row.content();
+        previous = row.itemId();
+      }
+    }
+
+    ProgressMatrix matrix = withUsers(itemIds, contents, users);
+    for (ItemProgressRow row : rows) {
+      if (row.checkedBy() != null) {
+        matrix.set(row.itemId(), row.checkedBy(), true);
+      }
+    }
+    return matrix;
+  }
+
+  private static ProgressMatrix withUsers(long[] itemIds, String[] contents, List<User> users) {
+    UUID[] userIds = new UUID[users.size()];
+    String[] usernames = new String[users.size()];
+    for (int i = 0; i < users.size(); i++) {
+      userIds[i] = users.get(i).getId();
+      usernames[i] = users.get(i).getUsername();
+    }
+    return new ProgressMatrix(itemIds, contents, userIds, usernames);
+  }
+
+  /**
+   * Records a progress change.
+   *
+   * @return false if the item or user is not part of this matrix, in which case it is stale
+   */
+  public synchronized boolean set(long itemId, UUID userId, boolean value) {
+    int row = itemIndex.get(itemId);
+    Integer column = userIndex.get(userId);
+    if (row < 0 || column == null) {
+      return false;
+    }
+    checked.set(row * userIds.length + column, value);
+    return true;
+  }
+
+  /**
+   * The checked flag for an item and user, or null if either is not part of this matrix.
+   */
+  public synchronized Boolean get(long itemId, UUID userId) {
+    int row = itemIndex.get(itemId);
+    Integer column = userIndex.get(userId);
+    if (row < 0 || column == null) {
+      return null;
+    }
+    return checked.get(row * userIds.length + column);
+  }
+
+  public boolean hasUser(UUID userId) {
+    return userIndex.containsKey(userId);
+  }
+
+  public boolean hasItem(long itemId) {
+    return itemIndex.get(itemId) >= 0;
+  }
+
+  public synchronized List<ChecklistDTO> toDTOs() {
+    List<ChecklistDTO> result = new ArrayList<>(itemIds.length);
+    int userCount = userIds.length;
+    for (int row = 0; row < itemIds.length; row++) {
+      Map<String, Boolean> progressMap = new HashMap<>(userCount * 2);
+      int base = row * userCount;
+      for (int column = 0; column < userCount; column++) {
+        progressMap.put(usernames[column], checked.get(base + column));
+      }
+      result.add(new ChecklistDTO(itemIds[row], contents[row], progressMap));
+    }
+    return result;
+  }
+
+  /**
+   * Writes the matrix as {@code {"users": [...], "items": [...], "checked": [...]}}, where
+   * {@code checked} holds one base64 bitset per user, in user order, with bit {@code i} (least
+   * significant first within each byte) set if item {@code i} is checked.
+   */
+  public synchronized void writeCompact(JsonGenerator json) throws IOException {
+    json.writeStartObject();
+    json.writeArrayFieldStart("users");
+    for (int column = 0; column < userIds.length; column++) {
+      json.writeStartObject();
+      json.writeStringField("id", userIds[column].toString());
+      json.writeStringField("username", usernames[column]);
+      json.writeEndObject();
+    }
+    json.writeEndArray();
+
+    json.writeArrayFieldStart("items");
+    for (int row = 0; row < itemIds.length; row++) {
+      json.writeStartObject();
+      json.writeNumberField("id", itemIds[row]);
+      json.writeStringField("content", contents[row]);
+      json.writeEndObject();
+    }
+    json.writeEndArray();
+
+    // Transpose the row-major flags into per-user bitsets, visiting only the set bits
+    int userCount = userIds.length;
+    byte[][] columns = new byte[userCount][(itemIds.length + 7) / 8];
+    for (int bit = checked.nextSetBit(0); bit >= 0; bit = checked.nextSetBit(bit + 1)) {
+      int row = bit / userCount;
+      columns[bit % userCount][row >> 3] |= (byte) (1 << (row & 7));
+    }
+    json.writeArrayFieldStart("checked");
+    for (byte[] column : columns) {
+      json.writeBinary(column);
+    }
+    json.writeEndArray();
+    json.writeEndObject();
+  }
+
+  public int itemCount() {
+    return itemIds.length;
+  }
+
+  /**
+   * Number of item x user cells, used to weigh the matrix against the cache budget.
+   */
+  public long cells() {
+    return (long) itemIds.length * userIds.length;
+  }
+
+  /**
+   * Minimal open-addressing map from item id to row, built once and read-only afterwards.
+   */
+  static final class LongIndex {
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+
+    LongIndex(long[] ids) {
+      int capacity = Integer.highestOneBit(Math.max(ids.length * 2, 2) - 1) << 1;
+      keys = new long[capacity];
+      values = new int[capacity];
+      Arrays.fill(values, -1);
+      mask = capacity - 1;
+      for (int i = 0; i < ids.length; i++) {
+        int slot = slot(ids[i]);
+        while (values[slot] >= 0 && keys[slot] != ids[i]) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = ids[i];
+        values[slot] = i;
+      }
+    }
+
+    int get(long id) {
+      int slot = slot(id);
+      while (values[slot] >= 0) {
+        if (keys[slot] == id) {
+          return values[slot];
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    private int slot(long id) {
+      long h = id * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32)) & mask;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.jcw.checklist.cache;
+
+import com.jcw.checklist.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which {@link User} an authenticated principal (or dev user header) resolved to, so
+ * most requests don't look the user up again.
+ * <p>
+ * Entries expire after a fixed TTL and the least recently used are evicted past the size
+ * budget. Lookups are single-flight: concurrent misses for the same key wait for one loader
+ * instead of each running their own find-or-create.
+ */
+@Component
+public class UserIdentityCache {
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final int maxEntries;
+  private final long ttlNanos;
+
+  private final Counter hits;
+  private final Counter misses;
+
+  public UserIdentityCache(MeterRegistry registry,
+                           @Value("${checklist.identity-cache.max-entries:10000}") int maxEntries,
+                           @Value("${checklist.identity-cache.ttl-ms:300000}") long ttlMs) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttlMs * 1_000_000;
+    this.hits = Counter.builder("checklist.identity.cache.requests").tag("result", "hit").register(registry);
+    this.misses = Counter.builder("checklist.identity.cache.requests").tag("result", "miss").register(registry);
+    Gauge.builder("checklist.identity.cache.size", this, UserIdentityCache::size).register(registry);
+  }
+
+  public User get(String key, Supplier<User> loader) {
+    CompletableFuture<User> cached = null;
+    CompletableFuture<User> pending = null;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+        cached = entry.user;
+      } else {
+        pending = new CompletableFuture<>();
+        entries.put(key, new Entry(pending, System.nanoTime()));
+        evict();
+      }
+    }
+    // Waited on outside the lock: a failing loader needs it to drop its entry, and other keys shouldn't wait
+    if (cached != null) {
+      hits.increment();
+      return await(cached);
+    }
+    misses.increment();
+
+    try {
+      User user = loader.get();
+      pending.complete(user);
+      return user;
+    } catch (RuntimeException e) {
+      // Don't cache failures; waiters get the same error and the next request retries
+      synchronized (this) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.user == pending) {
+          entries.remove(key);
+        }
+      }
+      pending.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private void evict() {
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (entries.size() > maxEntries && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  private static User await(CompletableFuture<User> user) {
+    try {
+      return user.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Entry(CompletableFuture<User> user, long loadedAt) {
+  }
+}
@@ -0,0 +1,41 @@
+package com.jcw.checklist.changes;
+
+import com.jcw.checklist.dto.ChecklistEventDTO;
+
+import java.util.List;
+
+/**
+ * Carries checklist changes between the backend instances sharing a database, so each node can
+ * update its caches and event streams after a write on another node.
+ * <p>
+ * {@code checklist.changes.bus} picks the implementation: {@code jvm} connects only buses in the
+ * same JVM, {@code postgres} uses the database's LISTEN/NOTIFY. Delivery is best effort; a node
+ * that may have missed changes is told so through {@link Listener#lost()}.
+ */
+public interface ChangeBus {
+
+  /**
+   * Sends a change to the other nodes without waiting for it to arrive. Call it once the change
+   * has committed, or other nodes may reload the old state.
+   *
+   * @param version the checklist version the change produced, the same on every node; 0 for
+   *                changes subscribers aren't sent
+   */
+  void publish(Long checklistId, long version, ChecklistEventDTO delta);
+
+  void subscribe(Listener listener);
+
+  interface Listener {
+
+    /**
+     * Changes published by other nodes, oldest first. Never includes this node's own changes.
+     */
+    void received(List<ChecklistChange> changes);
+
+    /**
+     * Changes may have been lost, e.g. while reconnecting, so anything derived from other nodes'
+     * writes must be reloaded.
+     */
+    void lost();
+  }
+}
@@ -0,0 +1,13 @@
+package com.jcw.checklist.changes;
+
+import com.jcw.checklist.dto.ChecklistEventDTO;
+
+/**
+ * A change as sent between nodes.
+ *
+ * @param node    the publishing node, so it can ignore its own changes
+ * @param version the checklist version the change produced, or 0
+ * @param delta   the event its subscribers were sent
+ */
+public record ChecklistChange(String node, Long checklistId, long version, ChecklistEventDTO delta) {
+}
@@ -0,0 +1,85 @@
+package com.jcw.checklist.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Connects the buses that share a {@link Hub}, delivering each change synchronously on the
+ * publishing thread. The application's bus has a hub of its own, so on its own it delivers
+ * nothing; tests join another bus to that hub to stand in for a second node.
+ * <p>
+ * Changes go through JSON like they would over the network, so receivers never share the
+ * publisher's event object.
+ */
+@Component
+@ConditionalOnProperty(name = "checklist.changes.bus", havingValue = "jvm", matchIfMissing = true)
+public class InJvmChangeBus implements ChangeBus {
+
+  private final String node = UUID.randomUUID().toString();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final Hub hub;
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public InJvmChangeBus(ObjectMapper objectMapper) {
+    this(new Hub(), objectMapper);
+  }
+
+  public InJvmChangeBus(Hub hub, ObjectMapper objectMapper) {
+    this.hub = hub;
+    this.objectMapper = objectMapper;
+    hub.buses.add(this);
+  }
+
+  public Hub hub() {
+    return hub;
+  }
+
+  @Override
+  public void publish(Long checklistId, long version, ChecklistEventDTO delta) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(new ChecklistChange(node, checklistId, version, delta));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    for (InJvmChangeBus bus : hub.buses) {
+      if (bus != this) {
+        bus.deliver(json);
+      }
+    }
+  }
+
+  @Override
+  public void subscribe(Listener listener) {
+    listeners.add(listener);
+  }
+
+  private void deliver(String json) {
+    List<ChecklistChange> changes;
+    try {
+      changes = List.of(objectMapper.readValue(json, ChecklistChange.class));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    for (Listener listener : listeners) {
+      listener.received(changes);
+    }
+  }
+
+  /**
+   * The buses that see each other's changes.
+   */
+  public static final class Hub {
+    private final List<InJvmChangeBus> buses = new CopyOnWriteArrayList<>();
+  }
+}
@@ -0,0 +1,271 @@
+package com.jcw.checklist.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Sends changes to every node listening on the same PostgreSQL database with NOTIFY.
+ * <p>
+ * Publishing only queues the change. Every {@code batch-interval-ms} the queue is drained into
+ * as few notifications as fit PostgreSQL's 8000 byte payload limit, so a burst of toggles costs a
+ * handful of NOTIFYs rather than one each. A change too large for a notification of its own is
+ * sent as a resync of its checklist. A notification that fails to send is not retried: the next
+ * one to go out starts with a marker that makes the other nodes treat their changes as
+ * {@link Listener#lost() lost}.
+ * <p>
+ * Each node listens on a dedicated connection outside the pool. When that connection breaks the
+ * listener reconnects and reports the gap as {@link Listener#lost() lost} changes.
+ */
+@Component
+@ConditionalOnProperty(name = "checklist.changes.bus", havingValue = "postgres")
+public class PostgresChangeBus implements ChangeBus {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresChangeBus.class);
+
+  // PostgreSQL rejects payloads of 8000 bytes or more
+  private static final int MAX_PAYLOAD_BYTES = 7900;
+  private static final int POLL_MS = 500;
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  private final String node = UUID.randomUUID().toString();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final ConcurrentLinkedQueue<ChecklistChange> queue = new ConcurrentLinkedQueue<>();
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private DataSourceProperties dataSourceProperties;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private MeterRegistry registry;
+
+  @Value("${checklist.changes.channel:checklist_changes}")
+  private String channel;
+  @Value("${checklist.changes.reconnect-delay-ms:1000}")
+  private long reconnectDelayMs;
+
+  private Counter publishedChanges;
+  private Counter sentNotifications;
+  // Set when a notification failed and the other nodes haven't been told yet
+  private volatile boolean dropped;
+  private volatile boolean running = true;
+  private volatile Connection listenConnection;
+  private Thread listenerThread;
+
+  @PostConstruct
+  void start() {
+    if (!CHANNEL_NAME.matcher(channel).matches()) {
+      throw new IllegalStateException("checklist.changes.channel must be a lower case identifier: " + channel);
+    }
+    publishedChanges = Counter.builder("checklist.changes.published").register(registry);
+    sentNotifications = Counter.builder("checklist.changes.notifications").register(registry);
+    listenerThread = Thread.ofPlatform().daemon().name("change-bus-listener").start(this::listen);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    flush();
+    Connection connection = listenConnection;
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        log.debug("Closing the change listener connection failed", e);
+      }
+    }
+    listenerThread.join(POLL_MS * 2L);
+  }
+
+  @Override
+  public void publish(Long checklistId, long version, ChecklistEventDTO delta) {
+    queue.add(new ChecklistChange(node, checklistId, version, delta));
+  }
+
+  @Override
+  public void subscribe(Listener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Sends the queued changes, oldest first.
+   */
+  @Scheduled(fixedDelayString = "${checklist.changes.batch-interval-ms:10}")
+  public void flush() {
+    StringBuilder payload = new StringBuilder();
+    int payloadBytes = 0;
+    boolean markedLost = dropped;
+    if (markedLost) {
+      String json = toJson(lostMarker());
+      payload.append('[').append(json);
+      payloadBytes += json.getBytes(StandardCharsets.UTF_8).length + 1;
+    }
+    ChecklistChange change;
+    while ((change = queue.poll()) != null) {
+      String json = toJson(change);
+      int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+      if (bytes + 2 > MAX_PAYLOAD_BYTES) {
+        json = toJson(new ChecklistChange(node, change.checklistId(), change.version(),
+            new ChecklistEventDTO(ChecklistEventDTO.RESYNC, change.checklistId())));
+        bytes = json.getBytes(StandardCharsets.UTF_8).length;
+      }
+      if (payloadBytes > 0 && payloadBytes + bytes + 2 > MAX_PAYLOAD_BYTES) {
+        send(payload, markedLost);
+        markedLost = false;
+        payload.setLength(0);
+        payloadBytes = 0;
+      }
+      payload.append(payloadBytes == 0 ? '[' : ',').append(json);
+      payloadBytes += bytes + 1;
+      publishedChanges.increment();
+    }
+    if (payloadBytes > 0) {
+      send(payload, markedLost);
+    }
+  }
+
+  private void send(StringBuilder payload, boolean markedLost) {
+    payload.append(']');
+    try {
+      jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, channel,
+          payload.toString());
+      sentNotifications.increment();
+      if (markedLost) {
+        dropped = false;
+      }
+    } catch (RuntimeException e) {
+      // Once per outage; until a notification goes through every flush fails the same way
+      if (!dropped) {
+        log.warn("Dropping a change notification, other nodes will be told to reload", e);
+      }
+      dropped = true;
+    }
+  }
+
+  // Carries no checklist; tells the receivers that changes from this node were dropped
+  private ChecklistChange lostMarker() {
+    return new ChecklistChange(node, null, 0, new ChecklistEventDTO(ChecklistEventDTO.RESYNC, null));
+  }
+
+  private void listen() {
+    boolean reconnecting = false;
+    while (running) {
+      try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+          dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+        listenConnection = connection;
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        if (reconnecting) {
+          log.info("Listening for changes on {} again", channel);
+          lost();
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_MS);
+          if (notifications != null && notifications.length > 0) {
+            deliver(notifications);
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Lost the change listener connection, reconnecting in {} ms", reconnectDelayMs, e);
+        reconnecting = true;
+        try {
+          Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void deliver(PGNotification[] notifications) {
+    List<ChecklistChange> changes = new ArrayList<>();
+    for (PGNotification notification : notifications) {
+      try {
+        for (ChecklistChange change : objectMapper.readValue(notification.getParameter(), ChecklistChange[].class)) {
+          if (node.equals(change.node())) {
+            continue;
+          }
+          if (change.checklistId() == null) {
+            // The sender dropped changes before this point: reload, then apply the ones that follow
+            log.info("Node {} dropped change notifications", change.node());
+            deliver(changes);
+            changes.clear();
+            lost();
+          } else {
+            changes.add(change);
+          }
+        }
+      } catch (JsonProcessingException e) {
+        log.warn("Ignoring a malformed change notification", e);
+      }
+    }
+    deliver(changes);
+  }
+
+  private void deliver(List<ChecklistChange> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    for (Listener listener : listeners) {
+      try {
+        listener.received(List.copyOf(changes));
+      } catch (RuntimeException e) {
+        log.warn("Change listener failed", e);
+      }
+    }
+  }
+
+  private void lost() {
+    for (Listener listener : listeners) {
+      try {
+        listener.lost();
+      } catch (RuntimeException e) {
+        log.warn("Change listener failed", e);
+      }
+    }
+  }
+
+  private String toJson(ChecklistChange change) {
+    try {
+      return objectMapper.writeValueAsString(change);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.jcw.checklist.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.cache.ProgressMatrix;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link ProgressMatrix} in its compact form, see {@link ProgressMatrix#writeCompact}.
+ * <p>
+ * The document is generated straight onto the response stream, so no per-item DTOs or progress
+ * maps are built. Spring Boot picks up converter beans and offers them for content negotiation.
+ */
+@Component
+public class ProgressMatrixMessageConverter extends AbstractHttpMessageConverter<ProgressMatrix> {
+
+  public static final String MEDIA_TYPE_VALUE = "application/vnd.checklist.matrix+json";
+  public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+  private final JsonFactory jsonFactory;
+
+  public ProgressMatrixMessageConverter(ObjectMapper objectMapper) {
+    super(MEDIA_TYPE);
+    this.jsonFactory = objectMapper.getFactory();
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return ProgressMatrix.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected ProgressMatrix readInternal(Class<? extends ProgressMatrix> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Progress matrices are write-only", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(ProgressMatrix matrix, HttpOutputMessage outputMessage) throws IOException {
+    try (JsonGenerator json = jsonFactory.createGenerator(outputMessage.getBody())) {
+      // The servlet container owns the response stream
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      matrix.writeCompact(json);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.jcw.checklist.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import liquibase.integration.spring.SpringLiquibase;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Settings for the {@code read-replica} profile: read-only transactions started while serving a
+ * GET request go to a replica pool, everything else to the primary.
+ * <p>
+ * The replica pool is configured under {@code checklist.datasource.replica} like
+ * {@code spring.datasource}. Connections are fetched lazily, once the transaction's read-only
+ * flag is known, and {@link ReadYourWritesFilter} keeps a user's reads on the primary for a
+ * short window after their own writes.
+ * <p>
+ * State that outlives a request must not come from the replica, which may lag: reads on the
+ * replica don't populate Hibernate's second-level cache, and the progress and identity caches
+ * load through {@link ReplicaRouting#onPrimary}.
+ */
+@Configuration
+@Profile("read-replica")
+public class ReadReplicaConfig {
+
+  // The pools aren't beans, so the statement counting wrapper only sees the routing DataSource
+  private final List<HikariDataSource> pools = new CopyOnWriteArrayList<>();
+
+  @Bean
+  @Primary
+  public DataSource dataSource(DataSourceProperties primaryProperties, Environment environment,
+                                      ResourceLoader resourceLoader, LiquibaseProperties liquibaseProperties,
+                                      MeterRegistry registry) throws Exception {
+    Binder binder = Binder.get(environment);
+    HikariDataSource primary = pool(primaryProperties, binder, "spring.datasource.hikari", "primary");
+    DataSourceProperties replicaProperties = binder.bind("checklist.datasource.replica",
+        Bindable.of(DataSourceProperties.class)).orElseThrow(() ->
+        new IllegalStateException("checklist.datasource.replica.url is required by the read-replica profile"));
+    replicaProperties.afterPropertiesSet();
+    HikariDataSource replica = pool(replicaProperties, binder, "checklist.datasource.replica.hikari", "replica");
+
+    if (environment.getProperty("checklist.datasource.replica.initialize-schema", Boolean.class, false)) {
+      // A stand-in replica, such as a second H2 database, doesn't get the schema from the primary
+      SpringLiquibase liquibase = new SpringLiquibase();
+      liquibase.setDataSource(replica);
+      liquibase.setChangeLog(liquibaseProperties.getChangeLog());
+      liquibase.setResourceLoader(resourceLoader);
+      liquibase.afterPropertiesSet();
+    }
+    return new RoutingDataSource(primary, replica, registry);
+  }
+
+  @Bean
+  public ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+    return new ReadYourWritesFilter(
+        environment.getProperty("checklist.datasource.replica.sticky-window-ms", Long.class, 5000L));
+  }
+
+  @Bean
+  public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+    JpaTransactionManager transactionManager = new JpaTransactionManager() {
+      @Override
+      protected EntityManager createEntityManagerForTransaction() {
+        EntityManager entityManager = super.createEntityManagerForTransaction();
+        if (ReplicaRouting.replicaAllowed()) {
+          // Read from the cache but don't fill it with what may be stale replica rows
+          entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+        return entityManager;
+      }
+    };
+    customizers.ifAvailable(c -> c.customize(transactionManager));
+    return transactionManager;
+  }
+
+  @PreDestroy
+  public void closePools() {
+    pools.forEach(HikariDataSource::close);
+  }
+
+  private HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix,
+                                String name) {
+    HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+    pool.setPoolName(name);
+    pools.add(pool);
+    return pool;
+  }
+
+  /**
+   * Hands out primary connections, switching to the replica for read-only transactions when
+   * {@link ReplicaRouting} allows it.
+   */
+  static class RoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    RoutingDataSource(HikariDataSource primary, HikariDataSource replica, MeterRegistry registry) {
+      super(primary);
+      Counter primaryReads = Counter.builder("checklist.datasource.read-only").tag("target", "primary")
+          .register(registry);
+      Counter replicaReads = Counter.builder("checklist.datasource.read-only").tag("target", "replica")
+          .register(registry);
+      setReadOnlyDataSource(new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+          return target().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+          return target().getConnection(username, password);
+        }
+
+        private DataSource target() {
+          if (ReplicaRouting.replicaAllowed()) {
+            replicaReads.increment();
+            return replica;
+          }
+          primaryReads.increment();
+          return primary;
+        }
+      });
+    }
+  }
+}
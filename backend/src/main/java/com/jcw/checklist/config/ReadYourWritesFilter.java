@@ -0,0 +1,85 @@
+package com.jcw.checklist.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets GET requests read from the replica, except for users who wrote within the last
+ * {@code sticky-window-ms}: their reads stay on the primary until the replica has had time to
+ * catch up, so a toggle followed by a refresh shows the toggle.
+ * <p>
+ * Users are told apart by principal, or by the dev user header where nobody logs in. Write times
+ * are kept per instance, which suffices while one instance serves a user's session.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  private static final String DEV_USER_HEADER = "X-Dev-User";
+  // Expired entries are pruned once this many users are tracked
+  private static final int PRUNE_THRESHOLD = 10_000;
+
+  private final long windowNanos;
+  private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+  public ReadYourWritesFilter(long stickyWindowMs) {
+    this.windowNanos = stickyWindowMs * 1_000_000;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String user = userKey(request);
+    boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+    if (!read) {
+      // Also covers reads that overlap the write
+      recordWrite(user);
+    }
+    ReplicaRouting.allowReplica(read && !wroteRecently(user));
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      ReplicaRouting.clear();
+      if (!read) {
+        // The window starts once the write has committed
+        recordWrite(user);
+      }
+    }
+  }
+
+  private boolean wroteRecently(String user) {
+    Long lastWrite = lastWrites.get(user);
+    return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+  }
+
+  private void recordWrite(String user) {
+    long now = System.nanoTime();
+    lastWrites.put(user, now);
+    if (lastWrites.size() > PRUNE_THRESHOLD) {
+      lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+  }
+
+  private static String userKey(HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.isAuthenticated()
+        && !(authentication instanceof AnonymousAuthenticationToken)) {
+      return "principal:" + authentication.getName();
+    }
+    String devUser = request.getHeader(DEV_USER_HEADER);
+    return "dev:" + (devUser == null ? "" : devUser);
+  }
+}
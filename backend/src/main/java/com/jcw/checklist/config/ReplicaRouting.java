@@ -0,0 +1,47 @@
+package com.jcw.checklist.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether the current thread's read-only transactions may run on the read replica.
+ * <p>
+ * Off unless {@link ReadYourWritesFilter} turned it on for a GET request, so background work and
+ * writes always see the primary. Without the {@code read-replica} profile nothing turns it on and
+ * every method here is a no-op.
+ */
+public final class ReplicaRouting {
+
+  private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+  private ReplicaRouting() {
+  }
+
+  public static boolean replicaAllowed() {
+    return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+  }
+
+  static void allowReplica(boolean allowed) {
+    REPLICA_ALLOWED.set(allowed);
+  }
+
+  static void clear() {
+    REPLICA_ALLOWED.remove();
+  }
+
+  /**
+   * Runs work that must see the primary even inside a replica-routed request, such as filling a
+   * cache that outlives the request. Transactions must start inside {@code work}.
+   */
+  public static <T> T onPrimary(Supplier<T> work) {
+    Boolean previous = REPLICA_ALLOWED.get();
+    if (previous == null) {
+      return work.get();
+    }
+    REPLICA_ALLOWED.set(false);
+    try {
+      return work.get();
+    } finally {
+      REPLICA_ALLOWED.set(previous);
+    }
+  }
+}
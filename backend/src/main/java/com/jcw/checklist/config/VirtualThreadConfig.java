@@ -0,0 +1,34 @@
+package com.jcw.checklist.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Settings for the {@code virtual-threads} profile. Spring Boot moves Tomcat, {@code @Async} and
+ * {@code @Scheduled} onto virtual threads via {@code spring.threads.virtual.enabled}; this
+ * bounds the database side so those threads queue for connections without pinning carriers.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+  @Bean
+  public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+    int maxConnections = environment.getProperty("checklist.datasource.max-connections", Integer.class, 10);
+    long acquireTimeoutMs = environment.getProperty("checklist.datasource.acquire-timeout-ms", Long.class, 10000L);
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+          return new BoundedDataSource(dataSource, maxConnections, acquireTimeoutMs);
+        }
+        return bean;
+      }
+    };
+  }
+}
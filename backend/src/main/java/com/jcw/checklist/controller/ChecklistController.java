@@ -1,28 +1,67 @@
 package com.jcw.checklist.controller;
 
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.cache.ProgressMatrix;
+import com.jcw.checklist.config.ProgressMatrixMessageConverter;
+import com.jcw.checklist.config.ReplicaRouting;
 import com.jcw.checklist.dto.ChecklistDTO;
+import com.jcw.checklist.dto.ChecklistEventDTO;
 import com.jcw.checklist.dto.ChecklistSummaryDTO;
+import com.jcw.checklist.dto.ItemMoveResultDTO;
+import com.jcw.checklist.dto.ProgressBatchResultDTO;
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.metrics.SqlBudget;
 import com.jcw.checklist.model.Checklist;
 import com.jcw.checklist.model.ChecklistItem;
-import com.jcw.checklist.model.User;
 import com.jcw.checklist.model.UserChecklistProgress;
 import com.jcw.checklist.repository.ChecklistItemRepository;
 import com.jcw.checklist.repository.ChecklistRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
 import com.jcw.checklist.repository.UserChecklistProgressRepository;
-import com.jcw.checklist.repository.UserRepository;
+import com.jcw.checklist.service.ChecklistEventService;
+import com.jcw.checklist.service.ChecklistImportService;
+import com.jcw.checklist.service.ChecklistReadService;
+import com.jcw.checklist.service.ItemOrderService;
+import com.jcw.checklist.service.ItemSearchIndex;
+import com.jcw.checklist.service.ParticipantService;
+import com.jcw.checklist.service.ProgressService;
+import com.jcw.checklist.service.ProgressWriteBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.ArrayList;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -31,109 +70,270 @@ import java.util.UUID;
 @RequestMapping("/api/checklists")
 public class ChecklistController {
 
+  private static final int MAX_BATCH_CHANGES = 10_000;
+  private static final String CSV_VALUE = "text/csv";
+  private static final int MAX_PAGE_SIZE = 1000;
+
   @Autowired
   private ChecklistItemRepository checklistItemRepo;
   @Autowired
-  private UserRepository userRepo;
-  @Autowired
   private UserChecklistProgressRepository progressRepo;
   @Autowired
   private ChecklistRepository checklistRepo;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+  @Autowired
+  private ChecklistEventService eventService;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ItemOrderService itemOrderService;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ProgressService progressService;
+  @Autowired
+  private ProgressWriteBuffer progressWriteBuffer;
+  @Autowired
+  private ChecklistReadService checklistReadService;
+  @Autowired
+  private ItemSearchIndex searchIndex;
 
+  // Pages are keyed by the last checklist id seen, link to the next one when full and revalidate in one query
+  @SqlBudget(4)
   @GetMapping
-  public List<ChecklistSummaryDTO> getAllChecklists() {
-    return checklistRepo.findAllSummaries();
+  public ResponseEntity<List<ChecklistSummaryDTO>> getAllChecklists(@RequestParam(defaultValue = "0") long after,
+                                                                    @RequestParam(defaultValue = "100") int limit,
+                                                                    WebRequest request) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    String etag = statsRepo.findPageVersion(after, limit);
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+
+    List<ChecklistSummaryDTO> page = statsRepo.withCounters(checklistRepo.findSummariesAfter(after, Limit.of(limit)));
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag);
+    if (page.size() == limit) {
+      String next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("after", page.get(page.size() - 1).getId())
+          .replaceQueryParam("limit", limit)
+          .toUriString();
+      response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+    return response.body(page);
   }
 
+  @SqlBudget(8)
   @GetMapping("/{checklistId}")
-  public List<ChecklistDTO> getChecklistWithProgress(@PathVariable Long checklistId) {
-    Checklist checklist = checklistRepo.findById(checklistId)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
+  public ResponseEntity<List<ChecklistDTO>> getChecklistWithProgress(@PathVariable Long checklistId, WebRequest request) {
+    long version = checklistVersion(checklistId);
+    String etag = String.valueOf(version);
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    List<ChecklistDTO> items = progressCache.get(checklistId, version, () -> loadProgressMatrix(checklistId)).toDTOs();
+    return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).eTag(etag).body(items);
+  }
 
-    List<ChecklistItem> items = checklist.getItems();
-    if (items.isEmpty()) {
-      return new ArrayList<>();
+  // Same content with usernames sent once and progress as one bitset per user, for large checklists
+  @SqlBudget(8)
+  @GetMapping(value = "/{checklistId}", produces = ProgressMatrixMessageConverter.MEDIA_TYPE_VALUE)
+  public ResponseEntity<ProgressMatrix> getChecklistMatrix(@PathVariable Long checklistId, WebRequest request) {
+    long version = checklistVersion(checklistId);
+    String etag = version + "-matrix";
+    if (request.checkNotModified(etag)) {
+      return null;
     }
+    ProgressMatrix matrix = progressCache.get(checklistId, version, () -> loadProgressMatrix(checklistId));
+    return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).eTag(etag).body(matrix);
+  }
 
-    // Load only relevant data in single queries
-    List<User> users = userRepo.findAll();
-    List<UserChecklistProgress> progresses = progressRepo.findByChecklistId(checklistId);
+  // Pages are keyed by the (displayOrder, id) of the last item seen; a full page links to the next one.
+  // Progress is only loaded for the page's items.
+  @SqlBudget(6)
+  @GetMapping("/{checklistId}/items")
+  public ResponseEntity<List<ChecklistDTO>> getItemPage(@PathVariable Long checklistId,
+                                                        @RequestParam(required = false) Long afterOrder,
+                                                        @RequestParam(defaultValue = "0") long afterId,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        WebRequest request) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    String etag = String.valueOf(checklistVersion(checklistId));
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
 
-    // Build lookup maps for O(1) access instead of O(n) stream operations  
-    Map<UUID, String> userIdToUsername = new HashMap<>();
-    for (User user : users) {
-      userIdToUsername.put(user.getId(), user.getUsername());
+    List<ChecklistItem> items = checklistItemRepo.findPage(checklistId,
+        afterOrder != null ? afterOrder : Long.MIN_VALUE, afterId, Limit.of(limit));
+    List<ChecklistDTO> page = List.of();
+    if (!items.isEmpty()) {
+      List<Long> itemIds = items.stream().map(ChecklistItem::getId).toList();
+      page = ProgressMatrix.build(items, participantService.participants(checklistId),
+          progressRepo.findCheckedByParticipantsForItems(checklistId, itemIds)).toDTOs();
     }
 
-    Map<String, Boolean> progressLookup = new HashMap<>();
-    for (UserChecklistProgress progress : progresses) {
-      String username = userIdToUsername.get(progress.getUserId());
-      if (username != null && progress.isChecked()) {
-        String key = progress.getChecklistItemId() + ":" + username;
-        progressLookup.put(key, true);
-      }
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache())
+        .varyBy(HttpHeaders.ACCEPT).eTag(etag);
+    if (items.size() == limit) {
+      ChecklistItem last = items.get(items.size() - 1);
+      String next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("afterOrder", last.getDisplayOrder())
+          .replaceQueryParam("afterId", last.getId())
+          .replaceQueryParam("limit", limit)
+          .toUriString();
+      response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
     }
+    return response.body(page);
+  }
 
-    // Build result efficiently
-    List<ChecklistDTO> result = new ArrayList<>(items.size());
-    for (ChecklistItem item : items) {
-      Map<String, Boolean> progressMap = new HashMap<>();
-      for (String username : userIdToUsername.values()) {
-        String key = item.getId() + ":" + username;
-        progressMap.put(username, progressLookup.getOrDefault(key, false));
-      }
-      result.add(new ChecklistDTO(item.getId(), item.getContent(), progressMap));
+  // Every item as NDJSON, written while the rows are read so memory doesn't grow with the checklist
+  @SqlBudget(4)
+  @GetMapping(value = "/{checklistId}/items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void streamItems(@PathVariable Long checklistId, HttpServletResponse response) throws IOException {
+    if (!checklistRepo.existsById(checklistId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found");
     }
+    progressWriteBuffer.flush();
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    checklistReadService.writeItems(checklistId, response.getOutputStream());
+  }
 
-    return result;
+  private long checklistVersion(Long checklistId) {
+    // Written-behind changes are already in the cached views but only bump the version once
+    // flushed; flushing first keeps a pending change from being answered with a stale 304
+    progressWriteBuffer.flush();
+    // Read the version before the content so a concurrent change can only make the ETag older, never newer
+    return statsRepo.findVersion(checklistId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
+  }
+
+  // Callers have already found the checklist's version, so it exists
+  private ProgressMatrix loadProgressMatrix(Long checklistId) {
+    // Written-behind progress must reach the database before it is read back
+    progressWriteBuffer.flush();
+    // The cached matrix outlives the request, so it mustn't come from a lagging replica
+    return ReplicaRouting.onPrimary(() -> checklistReadService.loadProgressMatrix(checklistId));
+  }
+
+  @GetMapping(value = "/{checklistId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChecklistEvents(@PathVariable Long checklistId,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+    // Replay is decided against the stored version, which a lagging replica could understate
+    long version = ReplicaRouting.onPrimary(() -> statsRepo.findVersion(checklistId))
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
+    return eventService.subscribe(checklistId, lastEventId, version);
   }
 
+  @SqlBudget(8)
   @PostMapping("/{checklistId}/item/{itemId}/user/{userId}/toggle")
   public void toggleItem(@PathVariable Long checklistId,
                          @PathVariable Long itemId,
                          @PathVariable UUID userId) {
-    // Optional: verify item belongs to checklistId if desired
+    try {
+      progressService.toggle(checklistId, itemId, userId);
+    } catch (DuplicateKeyException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Concurrent update, retry");
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+    }
+  }
 
-    UserChecklistProgress.UserChecklistProgressId id = new UserChecklistProgress.UserChecklistProgressId(userId, itemId);
-    UserChecklistProgress progress = progressRepo.findById(id)
-        .orElse(new UserChecklistProgress());
+  @SqlBudget(8)
+  @PutMapping("/{checklistId}/item/{itemId}/user/{userId}/checked")
+  public void checkItem(@PathVariable Long checklistId,
+                        @PathVariable Long itemId,
+                        @PathVariable UUID userId) {
+    setItemChecked(checklistId, itemId, userId, true);
+  }
 
-    progress.setUserId(userId);
-    progress.setChecklistItemId(itemId);
-    progress.setChecked(!progress.isChecked());
-    progressRepo.save(progress);
+  @SqlBudget(8)
+  @DeleteMapping("/{checklistId}/item/{itemId}/user/{userId}/checked")
+  public void uncheckItem(@PathVariable Long checklistId,
+                          @PathVariable Long itemId,
+                          @PathVariable UUID userId) {
+    setItemChecked(checklistId, itemId, userId, false);
   }
 
-  @PutMapping("/{checklistId}/reorder")
-  public void reorderItems(@PathVariable Long checklistId, @RequestBody ReorderRequest request) {
-    // Verify checklist exists
-    Checklist checklist = checklistRepo.findById(checklistId)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
+  @SqlBudget(16)
+  @PostMapping("/{checklistId}/progress:batch")
+  public ProgressBatchResultDTO applyProgressBatch(@PathVariable Long checklistId, @RequestBody ProgressBatchRequest request) {
+    if (request.getChanges() == null || request.getChanges().isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No changes in batch");
+    }
+    if (request.getChanges().size() > MAX_BATCH_CHANGES) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many changes in batch");
+    }
 
-    // Validate that all item IDs belong to this checklist
-    List<ChecklistItem> items = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAsc(checklistId);
-    Map<Long, ChecklistItem> itemMap = new HashMap<>();
-    for (ChecklistItem item : items) {
-      itemMap.put(item.getId(), item);
+    // Later changes to the same cell win, as if they had been sent one by one
+    Map<UserChecklistProgress.UserChecklistProgressId, ProgressChangeDTO> latest = new LinkedHashMap<>();
+    for (ProgressChangeDTO change : request.getChanges()) {
+      if (change.getItemId() == null || change.getUserId() == null) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each change needs an itemId and userId");
+      }
+      latest.put(new UserChecklistProgress.UserChecklistProgressId(change.getUserId(), change.getItemId()), change);
     }
 
-    // Validate request
-    if (request.getItemIds() == null || request.getItemIds().size() != items.size()) {
-      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reorder request");
+    try {
+      return progressService.applyBatch(checklistId, latest.values());
+    } catch (DuplicateKeyException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Concurrent update, retry the batch");
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
     }
+  }
 
-    // Update display order for each item
-    for (int i = 0; i < request.getItemIds().size(); i++) {
-      Long itemId = request.getItemIds().get(i);
-      ChecklistItem item = itemMap.get(itemId);
-      if (item == null) {
-        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item not found in checklist");
-      }
-      item.setDisplayOrder(i);
-      checklistItemRepo.save(item);
+  private void setItemChecked(Long checklistId, Long itemId, UUID userId, boolean checked) {
+    try {
+      progressService.setChecked(checklistId, itemId, userId, checked);
+    } catch (DuplicateKeyException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Concurrent update, retry");
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+    }
+  }
+
+  @SqlBudget(8)
+  @PutMapping("/{checklistId}/reorder")
+  public void reorderItems(@PathVariable Long checklistId, @RequestBody ReorderRequest request) {
+    try {
+      itemOrderService.reorder(checklistId, request.getItemIds());
+    } catch (OptimisticLockingFailureException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Checklist was reordered by someone else");
+    }
+
+    progressCache.invalidate(checklistId);
+    long version = statsRepo.bumpVersion(checklistId);
+    eventService.publish(ChecklistEventDTO.itemsReordered(checklistId, request.getItemIds()), version);
+  }
+
+  @SqlBudget(12)
+  @PutMapping("/{checklistId}/items/{itemId}/move")
+  public ItemMoveResultDTO moveItem(@PathVariable Long checklistId,
+                                    @PathVariable Long itemId,
+                                    @RequestBody MoveItemRequest request) {
+    ItemMoveResultDTO result;
+    try {
+      result = itemOrderService.move(checklistId, itemId, request.getAfterItemId(), request.getBeforeItemId(),
+          request.getExpectedOrderVersion());
+    } catch (OptimisticLockingFailureException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Checklist was reordered by someone else");
     }
+
+    progressCache.invalidate(checklistId);
+    long version = statsRepo.bumpVersion(checklistId);
+    eventService.publish(ChecklistEventDTO.itemMoved(checklistId, itemId, result.getDisplayOrder(),
+        result.getAfterItemId()), version);
+    return result;
   }
 
+  @SqlBudget(6)
   @PostMapping("/{checklistId}/items")
   public ChecklistDTO addItemToChecklist(@PathVariable Long checklistId, @RequestBody AddItemRequest request) {
     // Validate request
@@ -145,10 +345,8 @@ public class ChecklistController {
     Checklist checklist = checklistRepo.findById(checklistId)
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
 
-    // Get the highest display order for this checklist
-    List<ChecklistItem> existingItems = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAsc(checklistId);
-    int nextDisplayOrder = existingItems.isEmpty() ? 0 : 
-        existingItems.get(existingItems.size() - 1).getDisplayOrder() + 1;
+    // Append after the highest display order for this checklist
+    long nextDisplayOrder = itemOrderService.nextDisplayOrder(checklistId);
 
     // Create the new item
     ChecklistItem newItem = new ChecklistItem();
@@ -158,38 +356,69 @@ public class ChecklistController {
 
     ChecklistItem savedItem = checklistItemRepo.save(newItem);
 
+    progressCache.invalidate(checklistId);
+    long version = statsRepo.recordItemsAdded(checklistId, 1);
+    searchIndex.add(savedItem.getId(), checklistId, checklist.getName(), savedItem.getContent());
+    eventService.publish(ChecklistEventDTO.itemAdded(checklistId, savedItem.getId(), savedItem.getContent(),
+        savedItem.getDisplayOrder()), version);
+
     // Return as DTO to avoid circular reference
     return new ChecklistDTO(savedItem.getId(), savedItem.getContent(), new HashMap<>());
   }
 
   @PostMapping
   public ChecklistSummaryDTO createChecklist(@RequestBody CreateChecklistRequest request) {
-    // Validate request
-    if (request.getName() == null || request.getName().trim().isEmpty()) {
-      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Checklist name is required");
-    }
-    
-    // Create the checklist - let JPA handle ID generation
-    Checklist checklist = new Checklist();
-    checklist.setName(request.getName().trim());
-    checklist = checklistRepo.save(checklist);
-
-    // Create checklist items with proper display order
-    if (request.getItems() != null && !request.getItems().isEmpty()) {
-      int displayOrder = 0;
-      for (String itemContent : request.getItems()) {
-        if (itemContent != null && !itemContent.trim().isEmpty()) {
-          ChecklistItem item = new ChecklistItem();
-          item.setContent(itemContent.trim());
-          item.setChecklist(checklist);
-          item.setDisplayOrder(displayOrder++);
-          checklistItemRepo.save(item);
-        }
-      }
+    List<String> items = request.getItems() != null ? request.getItems() : List.of();
+    return indexed(checklistImportService.create(request.getName(), items.iterator()));
+  }
+
+  @SqlBudget(10)
+  @PostMapping("/{checklistId}/clone")
+  public ChecklistSummaryDTO cloneChecklist(@PathVariable Long checklistId,
+                                            @RequestBody(required = false) CloneChecklistRequest request) {
+    CloneChecklistRequest clone = request != null ? request : new CloneChecklistRequest();
+    if (!clone.isResetProgress()) {
+      // Written-behind progress must reach the database to be copied
+      progressWriteBuffer.flush();
     }
+    return indexed(checklistImportService.copy(checklistId, clone.getName(), !clone.isResetProgress()));
+  }
 
-    // Return the created checklist as summary
-    return new ChecklistSummaryDTO(checklist.getId(), checklist.getName());
+  @SqlBudget(2)
+  @GetMapping("/templates")
+  public List<ChecklistSummaryDTO> getTemplates() {
+    return statsRepo.withCounters(checklistRepo.findTemplateSummaries());
+  }
+
+  @SqlBudget(2)
+  @PutMapping("/{checklistId}/template")
+  public void setTemplate(@PathVariable Long checklistId, @RequestBody TemplateRequest request) {
+    Checklist checklist = checklistRepo.findById(checklistId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
+    checklist.setTemplate(request.isTemplate());
+    checklistRepo.save(checklist);
+    eventService.announce(new ChecklistEventDTO(ChecklistEventDTO.CHECKLIST_UPDATED, checklistId));
+  }
+
+  @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CSV_VALUE})
+  public ChecklistSummaryDTO importChecklist(@RequestParam String name,
+                                             @RequestParam(defaultValue = "false") boolean header,
+                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                             HttpServletRequest request) throws IOException {
+    // Items are read from the body as they are inserted, never buffered whole
+    Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+    Iterator<String> items = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+        ? checklistImportService.ndjsonItems(reader)
+        : checklistImportService.csvItems(reader, header);
+    return indexed(checklistImportService.create(name, items));
+  }
+
+  // Runs once the import has committed; imported items are read back rather than held in memory
+  private ChecklistSummaryDTO indexed(ChecklistSummaryDTO checklist) {
+    searchIndex.indexChecklist(checklist.getId());
+    eventService.announce(new ChecklistEventDTO(ChecklistEventDTO.CHECKLIST_CREATED, checklist.getId()));
+    return checklist;
   }
 
   // DTO for creating checklists
@@ -203,6 +432,33 @@ public class ChecklistController {
     public void setItems(List<String> items) { this.items = items; }
   }
 
+  // DTO for cloning a checklist; the name defaults to the original's
+  public static class CloneChecklistRequest {
+    private String name;
+    private boolean resetProgress = true;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public boolean isResetProgress() { return resetProgress; }
+    public void setResetProgress(boolean resetProgress) { this.resetProgress = resetProgress; }
+  }
+
+  // DTO for marking a checklist as a template
+  public static class TemplateRequest {
+    private boolean template;
+
+    public boolean isTemplate() { return template; }
+    public void setTemplate(boolean template) { this.template = template; }
+  }
+
+  // DTO for batched progress updates
+  public static class ProgressBatchRequest {
+    private List<ProgressChangeDTO> changes;
+
+    public List<ProgressChangeDTO> getChanges() { return changes; }
+    public void setChanges(List<ProgressChangeDTO> changes) { this.changes = changes; }
+  }
+
   // DTO for reordering items
   public static class ReorderRequest {
     private List<Long> itemIds;
@@ -211,6 +467,20 @@ public class ChecklistController {
     public void setItemIds(List<Long> itemIds) { this.itemIds = itemIds; }
   }
 
+  // DTO for moving a single item between two neighbours
+  public static class MoveItemRequest {
+    private Long afterItemId;
+    private Long beforeItemId;
+    private Long expectedOrderVersion;
+
+    public Long getAfterItemId() { return afterItemId; }
+    public void setAfterItemId(Long afterItemId) { this.afterItemId = afterItemId; }
+    public Long getBeforeItemId() { return beforeItemId; }
+    public void setBeforeItemId(Long beforeItemId) { this.beforeItemId = beforeItemId; }
+    public Long getExpectedOrderVersion() { return expectedOrderVersion; }
+    public void setExpectedOrderVersion(Long expectedOrderVersion) { this.expectedOrderVersion = expectedOrderVersion; }
+  }
+
   // DTO for adding items to a checklist
   public static class AddItemRequest {
     private String content;
@@ -0,0 +1,54 @@
+package com.jcw.checklist.controller;
+
+import com.jcw.checklist.metrics.SqlBudget;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.repository.ChecklistRepository;
+import com.jcw.checklist.service.ParticipantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/checklists/{checklistId}/participants")
+public class ParticipantController {
+
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ChecklistRepository checklistRepo;
+
+  @SqlBudget(4)
+  @GetMapping
+  public List<User> getParticipants(@PathVariable Long checklistId) {
+    if (!checklistRepo.existsById(checklistId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found");
+    }
+    return participantService.participants(checklistId);
+  }
+
+  @SqlBudget(6)
+  @PutMapping("/{userId}")
+  public void join(@PathVariable Long checklistId, @PathVariable UUID userId) {
+    try {
+      participantService.join(checklistId, userId);
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist or user not found");
+    }
+  }
+
+  @SqlBudget(6)
+  @DeleteMapping("/{userId}")
+  public void leave(@PathVariable Long checklistId, @PathVariable UUID userId) {
+    participantService.leave(checklistId, userId);
+  }
+}
@@ -0,0 +1,43 @@
+package com.jcw.checklist.controller;
+
+import com.jcw.checklist.dto.SearchResultDTO;
+import com.jcw.checklist.metrics.SqlBudget;
+import com.jcw.checklist.service.ItemSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+  private static final int MAX_PAGE_SIZE = 100;
+
+  @Autowired
+  private ItemSearchIndex searchIndex;
+
+  // Answered from the in-memory index alone
+  @SqlBudget(0)
+  @GetMapping
+  public SearchResultDTO search(@RequestParam String q,
+                                @RequestParam(defaultValue = "0") int offset,
+                                @RequestParam(defaultValue = "20") int limit) {
+    if (q.isBlank()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+    }
+    if (offset < 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "offset must not be negative");
+    }
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    if (!searchIndex.isReady()) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading");
+    }
+    return searchIndex.search(q, offset, limit);
+  }
+}
@@ -1,9 +1,13 @@
 package com.jcw.checklist.controller;
 
+import com.jcw.checklist.cache.UserIdentityCache;
+import com.jcw.checklist.config.ReplicaRouting;
+import com.jcw.checklist.metrics.SqlBudget;
 import com.jcw.checklist.model.User;
 import com.jcw.checklist.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,45 +19,50 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/user")
 public class UserController {
 
+  private static final String DEV_DEFAULT_USER = "alice";
+  private static final UUID DEV_DEFAULT_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
   @Autowired
   private UserRepository userRepository;
 
+  @Autowired
+  private UserIdentityCache identityCache;
+
   @Autowired
   private Environment environment;
 
-      @GetMapping("/current")
-    public User getCurrentUser(HttpServletRequest request) {
-        // Check if we're in dev profile
-        if (Arrays.asList(environment.getActiveProfiles()).contains("dev")) {
-            // In dev mode, check for selected user in header or default to alice
-            String selectedUser = request.getHeader("X-Dev-User");
-            
-            if (selectedUser == null || selectedUser.isEmpty()) {
-                selectedUser = "alice";
-            }
-            
-            final String finalSelectedUser = selectedUser; // For lambda usage
-            
-            // Return the selected user's actual data from the database
-            return userRepository.findByUsername(finalSelectedUser)
-                    .orElseGet(() -> {
-                        // Fallback to alice if selected user not found
-                        return userRepository.findByUsername("alice")
-                                .orElseGet(() -> {
-                                    User alice = new User();
-                                    alice.setId(UUID.fromString("11111111-1111-1111-1111-111111111111"));
-                                    alice.setUsername("alice");
-                                    return userRepository.save(alice);
-                                });
-                    });
-        }
+  private boolean devProfile;
+
+  @PostConstruct
+  void init() {
+    devProfile = Arrays.asList(environment.getActiveProfiles()).contains("dev");
+  }
+
+  @SqlBudget(4)
+  @GetMapping("/current")
+  public User getCurrentUser(HttpServletRequest request) {
+    if (devProfile) {
+      // In dev mode, check for selected user in header or default to alice
+      String selectedUser = request.getHeader("X-Dev-User");
+      if (selectedUser == null || selectedUser.isEmpty()) {
+        selectedUser = DEV_DEFAULT_USER;
+      }
+
+      // Return the selected user's actual data from the database, falling back to alice
+      String finalSelectedUser = selectedUser;
+      return identityCache.get("dev:" + selectedUser, () -> ReplicaRouting.onPrimary(
+          () -> userRepository.findByUsername(finalSelectedUser)
+              .orElseGet(() -> findOrCreate(DEV_DEFAULT_USER, DEV_DEFAULT_USER_ID))));
+    }
 
     // Production OAuth2 handling
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -62,31 +71,40 @@ public class UserController {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
     }
 
-    String username;
-    String email = null;
+    // The principal name is the provider's stable subject, unlike the display name
+    // Cached identities are always looked up on the primary
+    return identityCache.get("principal:" + authentication.getName(), () -> ReplicaRouting.onPrimary(() -> {
+      String username;
+      if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
+        // Get Google user info
+        String email = oauth2User.getAttribute("email");
+        username = oauth2User.getAttribute("name");
 
-    if (authentication.getPrincipal() instanceof OAuth2User) {
-      OAuth2User oauth2User = (OAuth2User) authentication.getPrincipal();
-      // Get Google user info
-      email = oauth2User.getAttribute("email");
-      username = oauth2User.getAttribute("name");
+        if (username == null) username = email;
+      } else {
+        username = authentication.getName();
+      }
+      return findOrCreate(username, UUID.randomUUID());
+    }));
+  }
 
-      if (username == null) username = email;
-    } else {
-      username = authentication.getName();
+  private User findOrCreate(String username, UUID newId) {
+    Optional<User> existing = userRepository.findByUsername(username);
+    if (existing.isPresent()) {
+      return existing.get();
+    }
+    User newUser = new User();
+    newUser.setId(newId);
+    newUser.setUsername(username);
+    try {
+      return userRepository.saveAndFlush(newUser);
+    } catch (DataIntegrityViolationException e) {
+      // Another instance created the user first; the unique username wins
+      return userRepository.findByUsername(username).orElseThrow(() -> e);
     }
-
-    // Find or create user based on OAuth2 info
-    String finalUsername = username;
-    return userRepository.findByUsername(username)
-        .orElseGet(() -> {
-          User newUser = new User();
-          newUser.setId(UUID.randomUUID());
-          newUser.setUsername(finalUsername);
-          return userRepository.save(newUser);
-        });
   }
 
+  @SqlBudget(2)
   @GetMapping
   public List<User> getAllUsers() {
     return userRepository.findAll();
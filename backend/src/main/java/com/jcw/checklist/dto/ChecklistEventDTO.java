@@ -0,0 +1,183 @@
+package com.jcw.checklist.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A single delta pushed to subscribers of a checklist's event stream.
+ * Only the fields relevant to {@link #type} are populated.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChecklistEventDTO {
+
+  public static final String ITEM_TOGGLED = "item-toggled";
+  public static final String ITEMS_TOGGLED = "items-toggled";
+  public static final String ITEMS_REORDERED = "items-reordered";
+  public static final String ITEM_MOVED = "item-moved";
+  public static final String ITEM_ADDED = "item-added";
+  public static final String PARTICIPANT_JOINED = "participant-joined";
+  public static final String PARTICIPANT_LEFT = "participant-left";
+  public static final String RESYNC = "resync";
+  // Only sent to other nodes; a new checklist has no subscribers yet, and neither event changes items
+  public static final String CHECKLIST_CREATED = "checklist-created";
+  public static final String CHECKLIST_UPDATED = "checklist-updated";
+
+  private String type;
+  // The checklist version the change produced, also the event's SSE id
+  private long version;
+  private Long checklistId;
+  private Long itemId;
+  private UUID userId;
+  private Boolean checked;
+  private String content;
+  private Long displayOrder;
+  private Long afterItemId;
+  private List<Long> itemIds;
+  private List<ProgressChangeDTO> changes;
+
+  public ChecklistEventDTO() {
+  }
+
+  public ChecklistEventDTO(String type, Long checklistId) {
+    this.type = type;
+    this.checklistId = checklistId;
+  }
+
+  public static ChecklistEventDTO itemToggled(Long checklistId, Long itemId, UUID userId, boolean checked) {
+    ChecklistEventDTO event = new ChecklistEventDTO(ITEM_TOGGLED, checklistId);
+    event.itemId = itemId;
+    event.userId = userId;
+    event.checked = checked;
+    return event;
+  }
+
+  public static ChecklistEventDTO itemsToggled(Long checklistId, List<ProgressChangeDTO> changes) {
+    ChecklistEventDTO event = new ChecklistEventDTO(ITEMS_TOGGLED, checklistId);
+    event.changes = changes;
+    return event;
+  }
+
+  public static ChecklistEventDTO itemsReordered(Long checklistId, List<Long> itemIds) {
+    ChecklistEventDTO event = new ChecklistEventDTO(ITEMS_REORDERED, checklistId);
+    event.itemIds = itemIds;
+    return event;
+  }
+
+  public static ChecklistEventDTO itemMoved(Long checklistId, Long itemId, Long displayOrder, Long afterItemId) {
+    ChecklistEventDTO event = new ChecklistEventDTO(ITEM_MOVED, checklistId);
+    event.itemId = itemId;
+    event.displayOrder = displayOrder;
+    event.afterItemId = afterItemId;
+    return event;
+  }
+
+  public static ChecklistEventDTO itemAdded(Long checklistId, Long itemId, String content, Long displayOrder) {
+    ChecklistEventDTO event = new ChecklistEventDTO(ITEM_ADDED, checklistId);
+    event.itemId = itemId;
+    event.content = content;
+    event.displayOrder = displayOrder;
+    return event;
+  }
+
+  public static ChecklistEventDTO participantJoined(Long checklistId, UUID userId) {
+    ChecklistEventDTO event = new ChecklistEventDTO(PARTICIPANT_JOINED, checklistId);
+    event.userId = userId;
+    return event;
+  }
+
+  public static ChecklistEventDTO participantLeft(Long checklistId, UUID userId) {
+    ChecklistEventDTO event = new ChecklistEventDTO(PARTICIPANT_LEFT, checklistId);
+    event.userId = userId;
+    return event;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public Long getChecklistId() {
+    return checklistId;
+  }
+
+  public void setChecklistId(Long checklistId) {
+    this.checklistId = checklistId;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public void setItemId(Long itemId) {
+    this.itemId = itemId;
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public void setUserId(UUID userId) {
+    this.userId = userId;
+  }
+
+  public Boolean getChecked() {
+    return checked;
+  }
+
+  public void setChecked(Boolean checked) {
+    this.checked = checked;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public Long getDisplayOrder() {
+    return displayOrder;
+  }
+
+  public void setDisplayOrder(Long displayOrder) {
+    this.displayOrder = displayOrder;
+  }
+
+  public Long getAfterItemId() {
+    return afterItemId;
+  }
+
+  public void setAfterItemId(Long afterItemId) {
+    this.afterItemId = afterItemId;
+  }
+
+  public List<Long> getItemIds() {
+    return itemIds;
+  }
+
+  public void setItemIds(List<Long> itemIds) {
+    this.itemIds = itemIds;
+  }
+
+  public List<ProgressChangeDTO> getChanges() {
+    return changes;
+  }
+
+  public void setChanges(List<ProgressChangeDTO> changes) {
+    this.changes = changes;
+  }
+}
@@ -3,6 +3,10 @@ package com.jcw.checklist.dto;
 public class ChecklistSummaryDTO {
   private Long id;
   private String name;
+  private Long itemCount;
+  private Long participantCount;
+  // Checked item x participant cells; completion is checkedCount / (itemCount * participantCount)
+  private Long checkedCount;
 
   public ChecklistSummaryDTO() {
   }
@@ -12,6 +16,14 @@ public class ChecklistSummaryDTO {
     this.name = name;
   }
 
+  public ChecklistSummaryDTO(Long id, String name, Long itemCount, Long participantCount, Long checkedCount) {
+    this.id = id;
+    this.name = name;
+    this.itemCount = itemCount;
+    this.participantCount = participantCount;
+    this.checkedCount = checkedCount;
+  }
+
   public Long getId() {
     return id;
   }
@@ -27,4 +39,28 @@ public class ChecklistSummaryDTO {
   public void setName(String name) {
     this.name = name;
   }
-} 
\ No newline at end of file
+
+  public Long getItemCount() {
+    return itemCount;
+  }
+
+  public void setItemCount(Long itemCount) {
+    this.itemCount = itemCount;
+  }
+
+  public Long getParticipantCount() {
+    return participantCount;
+  }
+
+  public void setParticipantCount(Long participantCount) {
+    this.participantCount = participantCount;
+  }
+
+  public Long getCheckedCount() {
+    return checkedCount;
+  }
+
+  public void setCheckedCount(Long checkedCount) {
+    this.checkedCount = checkedCount;
+  }
+}
@@ -0,0 +1,50 @@
+package com.jcw.checklist.dto;
+
+public class ItemMoveResultDTO {
+  private Long itemId;
+  private Long displayOrder;
+  private Long afterItemId;
+  private Long orderVersion;
+
+  public ItemMoveResultDTO() {
+  }
+
+  public ItemMoveResultDTO(Long itemId, Long displayOrder, Long afterItemId, Long orderVersion) {
+    this.itemId = itemId;
+    this.displayOrder = displayOrder;
+    this.afterItemId = afterItemId;
+    this.orderVersion = orderVersion;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public void setItemId(Long itemId) {
+    this.itemId = itemId;
+  }
+
+  public Long getDisplayOrder() {
+    return displayOrder;
+  }
+
+  public void setDisplayOrder(Long displayOrder) {
+    this.displayOrder = displayOrder;
+  }
+
+  public Long getAfterItemId() {
+    return afterItemId;
+  }
+
+  public void setAfterItemId(Long afterItemId) {
+    this.afterItemId = afterItemId;
+  }
+
+  public Long getOrderVersion() {
+    return orderVersion;
+  }
+
+  public void setOrderVersion(Long orderVersion) {
+    this.orderVersion = orderVersion;
+  }
+}
@@ -0,0 +1,30 @@
+package com.jcw.checklist.dto;
+
+public class ProgressBatchResultDTO {
+  private int applied;
+  private long version;
+
+  public ProgressBatchResultDTO() {
+  }
+
+  public ProgressBatchResultDTO(int applied, long version) {
+    this.applied = applied;
+    this.version = version;
+  }
+
+  public int getApplied() {
+    return applied;
+  }
+
+  public void setApplied(int applied) {
+    this.applied = applied;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+}
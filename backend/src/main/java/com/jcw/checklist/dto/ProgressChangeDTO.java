@@ -0,0 +1,42 @@
+package com.jcw.checklist.dto;
+
+import java.util.UUID;
+
+public class ProgressChangeDTO {
+  private Long itemId;
+  private UUID userId;
+  private boolean checked;
+
+  public ProgressChangeDTO() {
+  }
+
+  public ProgressChangeDTO(Long itemId, UUID userId, boolean checked) {
+    this.itemId = itemId;
+    this.userId = userId;
+    this.checked = checked;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public void setItemId(Long itemId) {
+    this.itemId = itemId;
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public void setUserId(UUID userId) {
+    this.userId = userId;
+  }
+
+  public boolean isChecked() {
+    return checked;
+  }
+
+  public void setChecked(boolean checked) {
+    this.checked = checked;
+  }
+}
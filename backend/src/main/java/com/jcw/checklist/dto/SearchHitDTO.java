@@ -0,0 +1,60 @@
+package com.jcw.checklist.dto;
+
+public class SearchHitDTO {
+  private Long itemId;
+  private Long checklistId;
+  private String checklistName;
+  private String content;
+  private double score;
+
+  public SearchHitDTO() {
+  }
+
+  public SearchHitDTO(Long itemId, Long checklistId, String checklistName, String content, double score) {
+    this.itemId = itemId;
+    this.checklistId = checklistId;
+    this.checklistName = checklistName;
+    this.content = content;
+    this.score = score;
+  }
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public void setItemId(Long itemId) {
+    this.itemId = itemId;
+  }
+
+  public Long getChecklistId() {
+    return checklistId;
+  }
+
+  public void setChecklistId(Long checklistId) {
+    this.checklistId = checklistId;
+  }
+
+  public String getChecklistName() {
+    return checklistName;
+  }
+
+  public void setChecklistName(String checklistName) {
+    this.checklistName = checklistName;
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  public void setContent(String content) {
+    this.content = content;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public void setScore(double score) {
+    this.score = score;
+  }
+}
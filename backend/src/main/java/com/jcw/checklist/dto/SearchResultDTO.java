@@ -0,0 +1,33 @@
+package com.jcw.checklist.dto;
+
+import java.util.List;
+
+public class SearchResultDTO {
+  // Matches across all pages
+  private int total;
+  private List<SearchHitDTO> hits;
+
+  public SearchResultDTO() {
+  }
+
+  public SearchResultDTO(int total, List<SearchHitDTO> hits) {
+    this.total = total;
+    this.hits = hits;
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  public List<SearchHitDTO> getHits() {
+    return hits;
+  }
+
+  public void setHits(List<SearchHitDTO> hits) {
+    this.hits = hits;
+  }
+}
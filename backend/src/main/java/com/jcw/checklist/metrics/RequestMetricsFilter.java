@@ -0,0 +1,186 @@
+package com.jcw.checklist.metrics;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per API endpoint, the request latency, response size, and the SQL statements and
+ * rows each request needed.
+ * <p>
+ * Meters are tagged with the route template rather than the raw path, plus a
+ * {@code checklist_size} bucket of the checklist's item count taken from the progress cache, so
+ * cardinality stays bounded however many checklists exist. Streaming responses (SSE) are not
+ * measured.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+  private static final int[] SIZE_BUCKETS = {0, 10, 100, 1_000, 10_000};
+
+  private final MeterRegistry registry;
+  private final ChecklistProgressCache progressCache;
+
+  public RequestMetricsFilter(MeterRegistry registry, ChecklistProgressCache progressCache) {
+    this.registry = registry;
+    this.progressCache = progressCache;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    CountingResponse countingResponse = new CountingResponse(response);
+    SqlStatementCounter.Counts sql = SqlStatementCounter.start();
+    request.setAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE, sql);
+    long start = System.nanoTime();
+    try {
+      chain.doFilter(request, countingResponse);
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      SqlStatementCounter.stop();
+      if (!request.isAsyncStarted()) {
+        record(request, response.getStatus(), elapsed, countingResponse.bytes(), sql);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, int status, long elapsedNanos, long bytes,
+                      SqlStatementCounter.Counts sql) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    Tags tags = Tags.of(
+        "method", request.getMethod(),
+        "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+        "status", Integer.toString(status),
+        "checklist_size", checklistSize(request));
+
+    Timer.builder("checklist.http.requests").tags(tags).publishPercentileHistogram()
+        .register(registry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder("checklist.http.response.size").baseUnit("bytes").tags(tags)
+        .register(registry).record(bytes);
+    DistributionSummary.builder("checklist.http.sql.statements").tags(tags)
+        .register(registry).record(sql.statements());
+    DistributionSummary.builder("checklist.http.sql.rows").tags(tags)
+        .register(registry).record(sql.rows());
+  }
+
+  private String checklistSize(HttpServletRequest request) {
+    @SuppressWarnings("unchecked")
+    Map<String, String> variables =
+        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    if (variables == null || variables.get("checklistId") == null) {
+      return "none";
+    }
+    int items;
+    try {
+      items = progressCache.cachedItemCount(Long.valueOf(variables.get("checklistId")));
+    } catch (NumberFormatException e) {
+      return "none";
+    }
+    if (items < 0) {
+      return "unknown";
+    }
+    for (int bucket : SIZE_BUCKETS) {
+      if (items <= bucket) {
+        return "le_" + bucket;
+      }
+    }
+    return "gt_" + SIZE_BUCKETS[SIZE_BUCKETS.length - 1];
+  }
+
+  /**
+   * Counts the bytes written to the response body without buffering it.
+   */
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+    private long bytes;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CountingResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    long bytes() {
+      return bytes;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        ServletOutputStream target = super.getOutputStream();
+        outputStream = new ServletOutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            target.write(b);
+            bytes++;
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            bytes += len;
+          }
+
+          @Override
+          public void flush() throws IOException {
+            target.flush();
+          }
+
+          @Override
+          public void close() throws IOException {
+            target.close();
+          }
+
+          @Override
+          public boolean isReady() {
+            return target.isReady();
+          }
+
+          @Override
+          public void setWriteListener(WriteListener listener) {
+            target.setWriteListener(listener);
+          }
+        };
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+      }
+      return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (writer != null) {
+        writer.flush();
+      }
+      super.flushBuffer();
+    }
+  }
+}
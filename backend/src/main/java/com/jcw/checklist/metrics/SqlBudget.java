@@ -0,0 +1,22 @@
+package com.jcw.checklist.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one request to this endpoint may execute.
+ * <p>
+ * Exceeding it logs a warning, or fails the request when {@code checklist.sql-budget.enforce}
+ * is set, as it is in tests. Budgets hold whatever the cache state, so they are counted for a
+ * cold cache; an endpoint whose count grows with the data (an N+1) will blow through them.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SqlBudget {
+
+  int value();
+}
@@ -0,0 +1,11 @@
+package com.jcw.checklist.metrics;
+
+/**
+ * Thrown before a statement that would take a request past its {@link SqlBudget}, when budgets are enforced.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+  public SqlBudgetExceededException(String message) {
+    super(message);
+  }
+}
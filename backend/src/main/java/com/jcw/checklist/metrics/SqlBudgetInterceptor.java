@@ -0,0 +1,44 @@
+package com.jcw.checklist.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the handler's {@link SqlBudget} to the statement count {@link RequestMetricsFilter}
+ * keeps for the request.
+ */
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+  private static final Logger log = LoggerFactory.getLogger(SqlBudgetInterceptor.class);
+
+  @Value("${checklist.sql-budget.enforce:false}")
+  private boolean enforce;
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    SqlStatementCounter.Counts counts = SqlStatementCounter.current();
+    if (counts != null && handler instanceof HandlerMethod method) {
+      SqlBudget budget = method.getMethodAnnotation(SqlBudget.class);
+      if (budget != null) {
+        counts.budget(budget.value(), enforce);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    SqlStatementCounter.Counts counts = SqlStatementCounter.current();
+    if (counts != null && counts.overBudget()) {
+      log.warn("{} {} ran {} SQL statements, over its budget of {}",
+          request.getMethod(), request.getRequestURI(), counts.statements(), counts.budget());
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.jcw.checklist.metrics;
+
+/**
+ * Counts the SQL statements executed and rows read by the current thread while a request is
+ * being measured. Fed by {@link StatementCountingDataSource}.
+ */
+public final class SqlStatementCounter {
+
+  // The request's counts, for tests asserting on statement counts
+  public static final String REQUEST_ATTRIBUTE = SqlStatementCounter.class.getName() + ".COUNTS";
+
+  private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+  private SqlStatementCounter() {
+  }
+
+  /**
+   * Starts counting on this thread, returning the counts to read once the work is done.
+   */
+  public static Counts start() {
+    Counts counts = new Counts();
+    CURRENT.set(counts);
+    return counts;
+  }
+
+  public static void stop() {
+    CURRENT.remove();
+  }
+
+  /**
+   * Counts so far on this thread, or null when nothing is being measured.
+   */
+  public static Counts current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Called before a statement runs, so an enforced budget can stop it.
+   */
+  static void statementExecuting() {
+    Counts counts = CURRENT.get();
+    if (counts != null) {
+      counts.statements++;
+      if (counts.enforce && counts.overBudget()) {
+        throw new SqlBudgetExceededException(
+            "Request ran " + counts.statements + " SQL statements, over its budget of " + counts.budget);
+      }
+    }
+  }
+
+  static void rowRead() {
+    Counts counts = CURRENT.get();
+    if (counts != null) {
+      counts.rows++;
+    }
+  }
+
+  public static final class Counts {
+    private long statements;
+    private long rows;
+    private int budget = -1;
+    private boolean enforce;
+
+    void budget(int budget, boolean enforce) {
+      this.budget = budget;
+      this.enforce = enforce;
+    }
+
+    public int budget() {
+      return budget;
+    }
+
+    public boolean overBudget() {
+      return budget >= 0 && statements > budget;
+    }
+
+    public long statements() {
+      return statements;
+    }
+
+    public long rows() {
+      return rows;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.jcw.checklist.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every executed statement and every row read to {@link SqlStatementCounter}.
+ * <p>
+ * Wrapping the {@link DataSource} rather than hooking into Hibernate means JdbcTemplate writes
+ * are counted too. A JDBC batch counts as one statement, since it is one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  public StatementCountingDataSource(DataSource target) {
+    super(target);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return proxy(Connection.class, obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return proxy(Connection.class, obtainTargetDataSource().getConnection(username, password));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, T target) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+      String name = method.getName();
+      if (target instanceof Statement && name.startsWith("execute")) {
+        SqlStatementCounter.statementExecuting();
+      }
+
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+
+      if (result instanceof ResultSet resultSet && !(target instanceof ResultSet)) {
+        return proxy(ResultSet.class, resultSet);
+      }
+      if (target instanceof ResultSet && name.equals("next") && Boolean.TRUE.equals(result)) {
+        SqlStatementCounter.rowRead();
+      } else if (target instanceof Connection && result instanceof Statement statement) {
+        return proxy(statementType(method), statement);
+      }
+      return result;
+    });
+  }
+
+  // Statement, PreparedStatement or CallableStatement, whichever the factory method declares
+  @SuppressWarnings("unchecked")
+  private static Class<Statement> statementType(Method method) {
+    return (Class<Statement>) method.getReturnType();
+  }
+}
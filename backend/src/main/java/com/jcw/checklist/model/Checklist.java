@@ -1,6 +1,8 @@
 package com.jcw.checklist.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -8,11 +10,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.List;
 
 @Entity
 @Table(name = "checklists")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "checklist")
 public class Checklist {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,9 +28,22 @@ public class Checklist {
 
   private String name;
 
+  // Bumped by every change to item order so concurrent reorders conflict instead of interleaving
+  @Version
+  @Column(name = "order_version")
+  private Long orderVersion;
+
+  // Version and completion counters are kept apart in checklist_stats, see ChecklistStatsRepository
+
+  // Not part of the item order, so changing it leaves orderVersion alone
+  @OptimisticLock(excluded = true)
+  private boolean template;
+
   // Bi-directional or uni-directional if preferred
+  // Cached as item ids; ChecklistStructureCache evicts it when the order changes
   @OneToMany(mappedBy = "checklist", cascade = CascadeType.ALL)
-  @OrderBy("displayOrder ASC")
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "checklist-items")
+  @OrderBy("displayOrder ASC, id ASC")
   private List<ChecklistItem> items;
 
   // getters/setters
@@ -42,6 +63,22 @@ public class Checklist {
     this.name = name;
   }
 
+  public Long getOrderVersion() {
+    return orderVersion;
+  }
+
+  public void setOrderVersion(Long orderVersion) {
+    this.orderVersion = orderVersion;
+  }
+
+  public boolean isTemplate() {
+    return template;
+  }
+
+  public void setTemplate(boolean template) {
+    this.template = template;
+  }
+
   public List<ChecklistItem> getItems() {
     return items;
   }
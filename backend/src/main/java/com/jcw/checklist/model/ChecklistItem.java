@@ -1,5 +1,6 @@
 package com.jcw.checklist.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -7,18 +8,30 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "checklist_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "checklist-item")
 public class ChecklistItem {
+  public static final long ORDER_GAP = 1L << 16;
+  // Ids each value drawn from checklist_items_seq reserves: value - ID_BLOCK_SIZE + 1 up to value
+  public static final int ID_BLOCK_SIZE = 50;
+
+  // Pooled sequence so item inserts can be JDBC-batched; raw SQL inserts must draw from it too
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "checklist_items_seq")
+  @SequenceGenerator(name = "checklist_items_seq", sequenceName = "checklist_items_seq", allocationSize = ID_BLOCK_SIZE)
   private Long id;
 
   private String content;
 
-  private Integer displayOrder = 0;
+  // Sparse sort key, spaced ORDER_GAP apart so a move only rewrites the moved row
+  private Long displayOrder = 0L;
 
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "checklist_id")
@@ -41,11 +54,11 @@ public class ChecklistItem {
     this.content = content;
   }
 
-  public Integer getDisplayOrder() {
+  public Long getDisplayOrder() {
     return displayOrder;
   }
 
-  public void setDisplayOrder(Integer displayOrder) {
+  public void setDisplayOrder(Long displayOrder) {
     this.displayOrder = displayOrder;
   }
 
@@ -0,0 +1,77 @@
+package com.jcw.checklist.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+@Entity
+@Table(name = "checklist_participants")
+@IdClass(ChecklistParticipant.ChecklistParticipantId.class)
+public class ChecklistParticipant {
+
+  @Id
+  private Long checklistId;
+
+  @Id
+  private UUID userId;
+
+  private Instant joinedAt;
+
+  // Getters and setters
+  public Long getChecklistId() {
+    return checklistId;
+  }
+
+  public void setChecklistId(Long checklistId) {
+    this.checklistId = checklistId;
+  }
+
+  public UUID getUserId() {
+    return userId;
+  }
+
+  public void setUserId(UUID userId) {
+    this.userId = userId;
+  }
+
+  public Instant getJoinedAt() {
+    return joinedAt;
+  }
+
+  public void setJoinedAt(Instant joinedAt) {
+    this.joinedAt = joinedAt;
+  }
+
+  // Composite key class
+  public static class ChecklistParticipantId implements Serializable {
+    private Long checklistId;
+    private UUID userId;
+
+    public ChecklistParticipantId() {
+    }
+
+    public ChecklistParticipantId(Long checklistId, UUID userId) {
+      this.checklistId = checklistId;
+      this.userId = userId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      ChecklistParticipantId that = (ChecklistParticipantId) o;
+      return Objects.equals(checklistId, that.checklistId) && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(checklistId, userId);
+    }
+  }
+}
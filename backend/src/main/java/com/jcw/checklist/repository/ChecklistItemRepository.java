@@ -1,10 +1,64 @@
 package com.jcw.checklist.repository;
 
 import com.jcw.checklist.model.ChecklistItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ChecklistItemRepository extends JpaRepository<ChecklistItem, Long> {
-  List<ChecklistItem> findByChecklistIdOrderByDisplayOrderAsc(Long checklistId);
+  // Cached as ids until the next write to checklist_items; the items come from their own region
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  List<ChecklistItem> findByChecklistIdOrderByDisplayOrderAscIdAsc(Long checklistId);
+
+  @Query("SELECT ci.id FROM ChecklistItem ci WHERE ci.checklist.id = :checklistId AND ci.id IN :itemIds")
+  List<Long> findIdsInChecklist(@Param("checklistId") Long checklistId, @Param("itemIds") Collection<Long> itemIds);
+
+  // One keyset page in (displayOrder, id) order, served by idx_checklist_items_checklist_order
+  @Query("SELECT ci FROM ChecklistItem ci WHERE ci.checklist.id = :checklistId "
+      + "AND (ci.displayOrder > :afterOrder OR (ci.displayOrder = :afterOrder AND ci.id > :afterId)) "
+      + "ORDER BY ci.displayOrder ASC, ci.id ASC")
+  List<ChecklistItem> findPage(@Param("checklistId") Long checklistId, @Param("afterOrder") long afterOrder,
+                               @Param("afterId") long afterId, Limit limit);
+
+  // Every item in display order with its checked progress rows; must be consumed inside a transaction
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new com.jcw.checklist.repository.ItemProgressRow(ci.id, ci.content, p.userId) FROM ChecklistItem ci "
+      + "LEFT JOIN UserChecklistProgress p ON p.checklistItemId = ci.id AND p.checked = true "
+      + "WHERE ci.checklist.id = :checklistId ORDER BY ci.displayOrder ASC, ci.id ASC")
+  Stream<ItemProgressRow> streamWithCheckedProgress(@Param("checklistId") Long checklistId);
+
+  // Items for the search index, all of them or one checklist's; must be consumed inside a transaction
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new com.jcw.checklist.repository.SearchableItemRow(ci.id, c.id, c.name, ci.content) "
+      + "FROM ChecklistItem ci JOIN ci.checklist c")
+  Stream<SearchableItemRow> streamSearchable();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("SELECT new com.jcw.checklist.repository.SearchableItemRow(ci.id, c.id, c.name, ci.content) "
+      + "FROM ChecklistItem ci JOIN ci.checklist c WHERE c.id = :checklistId")
+  Stream<SearchableItemRow> streamSearchable(@Param("checklistId") Long checklistId);
+
+  @Query("SELECT MAX(ci.displayOrder) FROM ChecklistItem ci WHERE ci.checklist.id = :checklistId")
+  Long findMaxDisplayOrder(@Param("checklistId") Long checklistId);
+
+  // Neighbours of an anchor item in (displayOrder, id) order, skipping the item being moved
+  @Query("SELECT ci FROM ChecklistItem ci WHERE ci.checklist.id = :checklistId AND ci.id <> :movedId "
+      + "AND (ci.displayOrder > :displayOrder OR (ci.displayOrder = :displayOrder AND ci.id > :anchorId)) "
+      + "ORDER BY ci.displayOrder ASC, ci.id ASC")
+  List<ChecklistItem> findItemsAfter(@Param("checklistId") Long checklistId, @Param("displayOrder") Long displayOrder,
+                                     @Param("anchorId") Long anchorId, @Param("movedId") Long movedId, Limit limit);
+
+  @Query("SELECT ci FROM ChecklistItem ci WHERE ci.checklist.id = :checklistId AND ci.id <> :movedId "
+      + "AND (ci.displayOrder < :displayOrder OR (ci.displayOrder = :displayOrder AND ci.id < :anchorId)) "
+      + "ORDER BY ci.displayOrder DESC, ci.id DESC")
+  List<ChecklistItem> findItemsBefore(@Param("checklistId") Long checklistId, @Param("displayOrder") Long displayOrder,
+                                      @Param("anchorId") Long anchorId, @Param("movedId") Long movedId, Limit limit);
 }
@@ -0,0 +1,36 @@
+package com.jcw.checklist.repository;
+
+import com.jcw.checklist.model.ChecklistParticipant;
+import com.jcw.checklist.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ChecklistParticipantRepository extends JpaRepository<ChecklistParticipant, ChecklistParticipant.ChecklistParticipantId> {
+
+  @Query("SELECT u FROM User u JOIN ChecklistParticipant p ON p.userId = u.id WHERE p.checklistId = :checklistId ORDER BY p.joinedAt, u.username")
+  List<User> findParticipantUsers(@Param("checklistId") Long checklistId);
+
+  // Single-statement insert-if-absent so joining twice is a cheap no-op. Naming the table it
+  // writes keeps Hibernate from evicting the whole second-level cache after native SQL
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "checklist_participants"))
+  @Query(value = "INSERT INTO checklist_participants (checklist_id, user_id, joined_at) "
+      + "SELECT :checklistId, :userId, CURRENT_TIMESTAMP WHERE NOT EXISTS "
+      + "(SELECT 1 FROM checklist_participants WHERE checklist_id = :checklistId AND user_id = :userId)", nativeQuery = true)
+  int insertIfAbsent(@Param("checklistId") Long checklistId, @Param("userId") UUID userId);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM ChecklistParticipant p WHERE p.checklistId = :checklistId AND p.userId = :userId")
+  int deleteParticipant(@Param("checklistId") Long checklistId, @Param("userId") UUID userId);
+}
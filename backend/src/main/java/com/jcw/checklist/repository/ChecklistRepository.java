@@ -1,14 +1,37 @@
 package com.jcw.checklist.repository;
 
 import com.jcw.checklist.model.Checklist;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import com.jcw.checklist.dto.ChecklistSummaryDTO;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ChecklistRepository extends JpaRepository<Checklist, Long> {
   
-  @Query("SELECT new com.jcw.checklist.dto.ChecklistSummaryDTO(c.id, c.name) FROM Checklist c")
-  List<com.jcw.checklist.dto.ChecklistSummaryDTO> findAllSummaries();
+  // Keyset page: the next checklists by id after the last one the client has seen. Names only,
+  // cached until the next write to checklists; the counters come from ChecklistStatsRepository
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query("SELECT new com.jcw.checklist.dto.ChecklistSummaryDTO(c.id, c.name) "
+      + "FROM Checklist c WHERE c.id > :afterId ORDER BY c.id")
+  List<ChecklistSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Limit limit);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query("SELECT new com.jcw.checklist.dto.ChecklistSummaryDTO(c.id, c.name) "
+      + "FROM Checklist c WHERE c.template = true ORDER BY c.name, c.id")
+  List<ChecklistSummaryDTO> findTemplateSummaries();
+
+  // Increments order_version on commit, failing if another reorder committed first
+  @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+  @Query("SELECT c FROM Checklist c WHERE c.id = :checklistId")
+  Optional<Checklist> findForReorder(@Param("checklistId") Long checklistId);
 }
 
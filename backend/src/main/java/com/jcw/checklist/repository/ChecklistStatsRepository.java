@@ -0,0 +1,146 @@
+package com.jcw.checklist.repository;
+
+import com.jcw.checklist.dto.ChecklistSummaryDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Each checklist's version and completion counters in {@code checklist_stats}.
+ * <p>
+ * They change with every write, so they live outside {@code checklists}, whose rows Hibernate
+ * caches: going through JDBC, these updates leave the cached structure and the cached queries
+ * over it alone. Nothing here is cached, so readers always see the committed values.
+ * <p>
+ * Every update bumps the version and returns the new one in the same statement, with
+ * {@code RETURNING} on PostgreSQL and a {@code FINAL TABLE} on H2.
+ */
+@Repository
+public class ChecklistStatsRepository {
+
+  private static final String INSERT =
+      "INSERT INTO checklist_stats (checklist_id) VALUES (?)";
+
+  private static final String FIND_VERSION =
+      "SELECT version FROM checklist_stats WHERE checklist_id = ?";
+
+  private static final String FIND_COUNTERS =
+      "SELECT checklist_id, item_count, participant_count, checked_count FROM checklist_stats "
+          + "WHERE checklist_id IN (:checklistIds)";
+
+  // Ids only grow and versions only go up, so any change to a page changes one of these
+  private static final String FIND_PAGE_VERSION =
+      "SELECT COUNT(*), COALESCE(MAX(checklist_id), 0), COALESCE(SUM(version), 0) FROM ("
+          + "SELECT checklist_id, version FROM checklist_stats WHERE checklist_id > ? "
+          + "ORDER BY checklist_id LIMIT ?) page";
+
+  private static final String BUMP_VERSION =
+      "UPDATE checklist_stats SET version = version + 1 WHERE checklist_id = ?";
+
+  private static final String RECORD_PROGRESS =
+      "UPDATE checklist_stats SET checked_count = checked_count + ?, version = version + 1 WHERE checklist_id = ?";
+
+  private static final String RECORD_ITEMS_ADDED =
+      "UPDATE checklist_stats SET item_count = item_count + ?, version = version + 1 WHERE checklist_id = ?";
+
+  private static final String RECORD_PARTICIPANTS =
+      "UPDATE checklist_stats SET participant_count = participant_count + ?, checked_count = checked_count + ?, "
+          + "version = version + 1 WHERE checklist_id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final boolean postgres;
+
+  public ChecklistStatsRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) throws MetaDataAccessException {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+    this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+  }
+
+  /**
+   * Starts the stats of a checklist just inserted, at version 0 with no items.
+   */
+  @Transactional
+  public void create(Long checklistId) {
+    jdbcTemplate.update(INSERT, checklistId);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<Long> findVersion(Long checklistId) {
+    return jdbcTemplate.queryForList(FIND_VERSION, Long.class, checklistId).stream().findFirst();
+  }
+
+  /**
+   * Tags the page of summaries after the given id, from the versions of its checklists alone:
+   * it changes when one of them is created or its counters change, and only then.
+   */
+  @Transactional(readOnly = true)
+  public String findPageVersion(long afterId, int limit) {
+    return jdbcTemplate.queryForObject(FIND_PAGE_VERSION,
+        (rs, row) -> rs.getLong(1) + "-" + rs.getLong(2) + "-" + rs.getLong(3), afterId, limit);
+  }
+
+  /**
+   * Fills in the counters of each summary, in one query.
+   */
+  @Transactional(readOnly = true)
+  public List<ChecklistSummaryDTO> withCounters(List<ChecklistSummaryDTO> summaries) {
+    if (summaries.isEmpty()) {
+      return summaries;
+    }
+    Map<Long, ChecklistSummaryDTO> byId = new HashMap<>();
+    summaries.forEach(summary -> byId.put(summary.getId(), summary));
+    namedJdbcTemplate.query(FIND_COUNTERS, Map.of("checklistIds", byId.keySet()), rs -> {
+      ChecklistSummaryDTO summary = byId.get(rs.getLong(1));
+      summary.setItemCount(rs.getLong(2));
+      summary.setParticipantCount(rs.getLong(3));
+      summary.setCheckedCount(rs.getLong(4));
+    });
+    return summaries;
+  }
+
+  /**
+   * Bumps the version alone. Call after the change is visible to readers (committed and applied
+   * to the progress cache), otherwise a reader could pair the new version with old content.
+   *
+   * @return the new version
+   */
+  @Transactional
+  public long bumpVersion(Long checklistId) {
+    return update(BUMP_VERSION, checklistId);
+  }
+
+  // The record* methods adjust the completion counters and bump the version in the same
+  // statement, returning the new version
+
+  @Transactional
+  public long recordProgress(Long checklistId, long checkedDelta) {
+    return update(RECORD_PROGRESS, checkedDelta, checklistId);
+  }
+
+  @Transactional
+  public long recordItemsAdded(Long checklistId, long count) {
+    return update(RECORD_ITEMS_ADDED, count, checklistId);
+  }
+
+  @Transactional
+  public long recordParticipants(Long checklistId, long participantDelta, long checkedDelta) {
+    return update(RECORD_PARTICIPANTS, participantDelta, checkedDelta, checklistId);
+  }
+
+  private long update(String sql, Object... args) {
+    String returning = postgres ? sql + " RETURNING version" : "SELECT version FROM FINAL TABLE (" + sql + ")";
+    return jdbcTemplate.queryForObject(returning, Long.class, args);
+  }
+}
@@ -0,0 +1,9 @@
+package com.jcw.checklist.repository;
+
+import java.util.UUID;
+
+/**
+ * One item joined with one user who checked it, or with a null user if nobody did.
+ */
+public record ItemProgressRow(Long itemId, String content, UUID checkedBy) {
+}
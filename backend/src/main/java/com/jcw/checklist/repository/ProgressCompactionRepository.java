@@ -0,0 +1,104 @@
+package com.jcw.checklist.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and purges {@code user_checklist_progress} in primary key order for
+ * {@code ProgressCompactionJob}, keeping its checkpoint in the single {@code progress_compaction} row.
+ */
+@Repository
+public class ProgressCompactionRepository {
+
+  private static final String FIND_STATE =
+      "SELECT last_user_id, last_item_id, purged_rows, completed_at IS NOT NULL FROM progress_compaction WHERE id = 1";
+
+  private static final String FIRST_ROWS =
+      "SELECT user_id, checklist_item_id, checked FROM user_checklist_progress "
+          + "ORDER BY user_id, checklist_item_id FETCH FIRST ? ROWS ONLY";
+
+  private static final String ROWS_AFTER =
+      "SELECT user_id, checklist_item_id, checked FROM user_checklist_progress "
+          + "WHERE user_id > ? OR (user_id = ? AND checklist_item_id > ?) "
+          + "ORDER BY user_id, checklist_item_id FETCH FIRST ? ROWS ONLY";
+
+  // Re-checks the flag, a row may have been checked since it was read
+  private static final String DELETE_UNCHECKED =
+      "DELETE FROM user_checklist_progress WHERE user_id = ? AND checklist_item_id = ? AND NOT checked";
+
+  private static final String SAVE_CHECKPOINT =
+      "UPDATE progress_compaction SET last_user_id = ?, last_item_id = ?, purged_rows = purged_rows + ?, "
+          + "completed_at = CASE WHEN ? THEN CURRENT_TIMESTAMP ELSE NULL END WHERE id = 1";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public ProgressCompactionRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Where the purge stopped; a null user id means it hasn't started.
+   */
+  public record Checkpoint(UUID lastUserId, Long lastItemId, long purgedRows, boolean completed) {
+  }
+
+  public record Row(UUID userId, long itemId, boolean checked) {
+  }
+
+  public Checkpoint findCheckpoint() {
+    return jdbcTemplate.queryForObject(FIND_STATE, (rs, i) -> new Checkpoint(
+        rs.getObject(1, UUID.class), rs.getObject(2, Long.class), rs.getLong(3), rs.getBoolean(4)));
+  }
+
+  /**
+   * The next rows in primary key order after the checkpoint, checked or not.
+   */
+  public List<Row> findRowsAfter(Checkpoint checkpoint, int limit) {
+    if (checkpoint.lastUserId() == null) {
+      return jdbcTemplate.query(FIRST_ROWS, this::mapRow, limit);
+    }
+    return jdbcTemplate.query(ROWS_AFTER, this::mapRow,
+        checkpoint.lastUserId(), checkpoint.lastUserId(), checkpoint.lastItemId(), limit);
+  }
+
+  /**
+   * Deletes those of the rows that are still unchecked, in one JDBC batch.
+   *
+   * @return the number of rows deleted
+   */
+  public long deleteUnchecked(List<Row> rows) {
+    List<Row> unchecked = rows.stream().filter(row -> !row.checked()).toList();
+    if (unchecked.isEmpty()) {
+      return 0;
+    }
+    long deleted = 0;
+    int[][] counts = jdbcTemplate.batchUpdate(DELETE_UNCHECKED, unchecked, unchecked.size(), (ps, row) -> {
+      ps.setObject(1, row.userId());
+      ps.setLong(2, row.itemId());
+    });
+    for (int[] batch : counts) {
+      for (int count : batch) {
+        // A driver that doesn't report counts still deleted at most one row
+        deleted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * Moves the checkpoint past {@code lastUserId}, {@code lastItemId} and adds to the purged count.
+   */
+  public void saveCheckpoint(UUID lastUserId, Long lastItemId, long purged, boolean completed) {
+    jdbcTemplate.update(SAVE_CHECKPOINT, lastUserId, lastItemId, purged, completed);
+  }
+
+  private Row mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return new Row(rs.getObject(1, UUID.class), rs.getLong(2), rs.getBoolean(3));
+  }
+}
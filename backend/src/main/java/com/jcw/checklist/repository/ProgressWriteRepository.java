@@ -0,0 +1,231 @@
+package com.jcw.checklist.repository;
+
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.model.UserChecklistProgress;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-statement writes to {@code user_checklist_progress}.
+ * <p>
+ * Each operation is one database-side upsert, so concurrent writers can't lose each other's
+ * updates the way a find-flip-save through JPA can. PostgreSQL uses
+ * {@code INSERT ... ON CONFLICT}; H2 uses standard {@code MERGE}.
+ * <p>
+ * With {@code checklist.progress.sparse} on (the default) only checked rows are kept: unchecking
+ * deletes the row, so the table holds no more rows than there are checked cells. Readers treat
+ * a missing row as unchecked either way, so rows left by dense storage read the same; see
+ * {@code ProgressCompactionJob} for purging them.
+ * <p>
+ * Every method runs in a transaction so it reuses the connection the request's JPA work already
+ * holds; borrowing a second one per request can exhaust the pool under load.
+ */
+@Repository
+public class ProgressWriteRepository {
+
+  private static final String PG_TOGGLE =
+      "INSERT INTO user_checklist_progress (user_id, checklist_item_id, checked) VALUES (?, ?, TRUE) "
+          + "ON CONFLICT (user_id, checklist_item_id) DO UPDATE SET checked = NOT user_checklist_progress.checked "
+          + "RETURNING checked";
+
+  private static final String H2_TOGGLE =
+      "SELECT checked FROM FINAL TABLE ("
+          + "MERGE INTO user_checklist_progress p "
+          + "USING (VALUES (CAST(? AS UUID), CAST(? AS BIGINT))) AS s(user_id, checklist_item_id) "
+          + "ON p.user_id = s.user_id AND p.checklist_item_id = s.checklist_item_id "
+          + "WHEN MATCHED THEN UPDATE SET checked = NOT p.checked "
+          + "WHEN NOT MATCHED THEN INSERT (user_id, checklist_item_id, checked) VALUES (s.user_id, s.checklist_item_id, TRUE))";
+
+  private static final String PG_CHECK =
+      "INSERT INTO user_checklist_progress (user_id, checklist_item_id, checked) VALUES (?, ?, TRUE) "
+          + "ON CONFLICT (user_id, checklist_item_id) DO UPDATE SET checked = TRUE "
+          + "WHERE NOT user_checklist_progress.checked";
+
+  private static final String H2_CHECK =
+      "MERGE INTO user_checklist_progress p "
+          + "USING (VALUES (CAST(? AS UUID), CAST(? AS BIGINT))) AS s(user_id, checklist_item_id) "
+          + "ON p.user_id = s.user_id AND p.checklist_item_id = s.checklist_item_id "
+          + "WHEN MATCHED AND NOT p.checked THEN UPDATE SET checked = TRUE "
+          + "WHEN NOT MATCHED THEN INSERT (user_id, checklist_item_id, checked) VALUES (s.user_id, s.checklist_item_id, TRUE)";
+
+  private static final String FIND_CHECKED =
+      "SELECT COALESCE(p.checked, FALSE) FROM checklist_items i "
+          + "LEFT JOIN user_checklist_progress p ON p.checklist_item_id = i.id AND p.user_id = ? "
+          + "WHERE i.id = ? AND i.checklist_id = ?";
+
+  private static final String UNCHECK =
+      "UPDATE user_checklist_progress SET checked = FALSE WHERE user_id = ? AND checklist_item_id = ? AND checked";
+
+  private static final String SPARSE_UNCHECK =
+      "DELETE FROM user_checklist_progress WHERE user_id = ? AND checklist_item_id = ? AND checked";
+
+  private static final String DELETE_UNCHECKED =
+      "DELETE FROM user_checklist_progress WHERE user_id = ? AND checklist_item_id = ? AND NOT checked";
+
+  // Batches set or clear many cells per statement, naming the rows each statement changed, so
+  // the caller learns exactly which changes applied. A JDBC batch may only report
+  // SUCCESS_NO_INFO. %s is the list of (user_id, checklist_item_id) pairs
+  private static final String PG_CHECK_ALL =
+      "INSERT INTO user_checklist_progress (user_id, checklist_item_id, checked) "
+          + "SELECT user_id, checklist_item_id, TRUE FROM (VALUES %s) AS s(user_id, checklist_item_id) "
+          + "ON CONFLICT (user_id, checklist_item_id) DO UPDATE SET checked = TRUE "
+          + "WHERE NOT user_checklist_progress.checked "
+          + "RETURNING user_id, checklist_item_id";
+
+  private static final String H2_CHECK_ALL =
+      "SELECT user_id, checklist_item_id FROM FINAL TABLE ("
+          + "MERGE INTO user_checklist_progress p "
+          + "USING (VALUES %s) AS s(user_id, checklist_item_id) "
+          + "ON p.user_id = s.user_id AND p.checklist_item_id = s.checklist_item_id "
+          + "WHEN MATCHED AND NOT p.checked THEN UPDATE SET checked = TRUE "
+          + "WHEN NOT MATCHED THEN INSERT (user_id, checklist_item_id, checked) VALUES (s.user_id, s.checklist_item_id, TRUE))";
+
+  private static final String UNCHECK_ALL =
+      "UPDATE user_checklist_progress SET checked = FALSE WHERE checked AND (user_id, checklist_item_id) IN (%s)";
+
+  private static final String SPARSE_UNCHECK_ALL =
+      "DELETE FROM user_checklist_progress WHERE checked AND (user_id, checklist_item_id) IN (%s)";
+
+  private static final String CELL = "(CAST(? AS UUID), CAST(? AS BIGINT))";
+  private static final int MAX_CELLS_PER_STATEMENT = 500;
+
+  private static final int MAX_WRITE_ATTEMPTS = 100;
+  private static final long RETRY_PAUSE_NANOS = 1_000_000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean postgres;
+  private final boolean sparse;
+
+  public ProgressWriteRepository(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                 @Value("${checklist.progress.sparse:true}") boolean sparse)
+      throws MetaDataAccessException {
+    this.jdbcTemplate = jdbcTemplate;
+    this.sparse = sparse;
+    String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+    this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+  }
+
+  /**
+   * The user's stored progress on an item, or empty if the item isn't in the checklist.
+   */
+  public Optional<Boolean> findChecked(Long checklistId, Long itemId, UUID userId) {
+    return jdbcTemplate.queryForList(FIND_CHECKED, Boolean.class, userId, itemId, checklistId).stream().findFirst();
+  }
+
+  /**
+   * Flips the user's progress on an item, creating it as checked if absent.
+   *
+   * @return the new checked state
+   */
+  @Transactional
+  public boolean toggle(UUID userId, Long itemId) {
+    String sql = postgres ? PG_TOGGLE : H2_TOGGLE;
+    boolean checked = retryOnDuplicate(() -> jdbcTemplate.queryForObject(sql, Boolean.class, userId, itemId));
+    if (!checked && sparse) {
+      // The flip still holds the row lock, so no other toggle can see the row in between
+      jdbcTemplate.update(DELETE_UNCHECKED, userId, itemId);
+    }
+    return checked;
+  }
+
+  /**
+   * Idempotently sets the user's progress on an item.
+   *
+   * @return true if the stored state changed
+   */
+  @Transactional
+  public boolean setChecked(UUID userId, Long itemId, boolean checked) {
+    if (!checked) {
+      return jdbcTemplate.update(uncheckSql(), userId, itemId) > 0;
+    }
+    String sql = postgres ? PG_CHECK : H2_CHECK;
+    return retryOnDuplicate(() -> jdbcTemplate.update(sql, userId, itemId) > 0);
+  }
+
+  /**
+   * H2's MERGE can race another insert of the same row. With sparse storage rows come and go on
+   * every toggle, so the race can repeat while the other writer's row is still uncommitted.
+   */
+  private <T> T retryOnDuplicate(Supplier<T> write) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return write.get();
+      } catch (DuplicateKeyException e) {
+        if (attempt == MAX_WRITE_ATTEMPTS) {
+          throw e;
+        }
+        // Give the other writer time to commit
+        LockSupport.parkNanos(RETRY_PAUSE_NANOS);
+      }
+    }
+  }
+
+  /**
+   * Applies many changes in one transaction, setting or clearing up to
+   * {@value #MAX_CELLS_PER_STATEMENT} cells per statement.
+   *
+   * @return the changes that altered stored state
+   */
+  @Transactional
+  public List<ProgressChangeDTO> applyBatch(Collection<ProgressChangeDTO> changes) {
+    List<ProgressChangeDTO> checks = new ArrayList<>();
+    List<ProgressChangeDTO> unchecks = new ArrayList<>();
+    for (ProgressChangeDTO change : changes) {
+      (change.isChecked() ? checks : unchecks).add(change);
+    }
+
+    List<ProgressChangeDTO> applied = new ArrayList<>(changes.size());
+    applyAll(postgres ? PG_CHECK_ALL : H2_CHECK_ALL, checks, applied);
+    applyAll(returning(sparse ? SPARSE_UNCHECK_ALL : UNCHECK_ALL, sparse), unchecks, applied);
+    return applied;
+  }
+
+  private String uncheckSql() {
+    return sparse ? SPARSE_UNCHECK : UNCHECK;
+  }
+
+  // A delete's rows are only in H2's OLD TABLE, an update's in its FINAL TABLE
+  private String returning(String sql, boolean delete) {
+    if (postgres) {
+      return sql + " RETURNING user_id, checklist_item_id";
+    }
+    return "SELECT user_id, checklist_item_id FROM " + (delete ? "OLD" : "FINAL") + " TABLE (" + sql + ")";
+  }
+
+  private void applyAll(String sql, List<ProgressChangeDTO> changes, List<ProgressChangeDTO> applied) {
+    for (int from = 0; from < changes.size(); from += MAX_CELLS_PER_STATEMENT) {
+      List<ProgressChangeDTO> chunk = changes.subList(from, Math.min(from + MAX_CELLS_PER_STATEMENT, changes.size()));
+      Map<UserChecklistProgress.UserChecklistProgressId, ProgressChangeDTO> byCell = new HashMap<>();
+      Object[] args = new Object[chunk.size() * 2];
+      for (int i = 0; i < chunk.size(); i++) {
+        ProgressChangeDTO change = chunk.get(i);
+        byCell.put(new UserChecklistProgress.UserChecklistProgressId(change.getUserId(), change.getItemId()), change);
+        args[2 * i] = change.getUserId();
+        args[2 * i + 1] = change.getItemId();
+      }
+      String cells = String.join(", ", Collections.nCopies(chunk.size(), CELL));
+      jdbcTemplate.query(sql.formatted(cells), rs -> {
+        applied.add(byCell.get(new UserChecklistProgress.UserChecklistProgressId(
+            rs.getObject(1, UUID.class), rs.getLong(2))));
+      }, args);
+    }
+  }
+}
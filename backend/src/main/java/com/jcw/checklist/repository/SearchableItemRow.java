@@ -0,0 +1,7 @@
+package com.jcw.checklist.repository;
+
+/**
+ * An item with what the search index needs to show it.
+ */
+public record SearchableItemRow(Long itemId, Long checklistId, String checklistName, String content) {
+}
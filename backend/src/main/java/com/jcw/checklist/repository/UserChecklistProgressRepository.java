@@ -5,7 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 public interface UserChecklistProgressRepository extends JpaRepository<UserChecklistProgress, UserChecklistProgress.UserChecklistProgressId> {
   
@@ -14,4 +16,14 @@ public interface UserChecklistProgressRepository extends JpaRepository<UserCheck
   
   @Query("SELECT p FROM UserChecklistProgress p JOIN ChecklistItem ci ON p.checklistItemId = ci.id WHERE ci.checklist.id = :checklistId")
   List<UserChecklistProgress> findByChecklistId(@Param("checklistId") Long checklistId);
+
+  @Query("SELECT p FROM UserChecklistProgress p "
+      + "JOIN ChecklistParticipant cp ON cp.checklistId = :checklistId AND cp.userId = p.userId "
+      + "WHERE p.checklistItemId IN :itemIds AND p.checked = true")
+  List<UserChecklistProgress> findCheckedByParticipantsForItems(@Param("checklistId") Long checklistId,
+                                                                @Param("itemIds") Collection<Long> itemIds);
+
+  @Query("SELECT COUNT(p) FROM UserChecklistProgress p JOIN ChecklistItem ci ON p.checklistItemId = ci.id "
+      + "WHERE ci.checklist.id = :checklistId AND p.userId = :userId AND p.checked = true")
+  long countCheckedByUser(@Param("checklistId") Long checklistId, @Param("userId") UUID userId);
 }
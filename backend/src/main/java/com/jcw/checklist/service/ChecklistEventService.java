@@ -0,0 +1,345 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.changes.ChangeBus;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans checklist deltas out to Server-Sent Events subscribers.
+ * <p>
+ * Every event carries the checklist version its change produced, which is also its SSE id. The
+ * version is stored with the checklist, so it means the same on every node: each channel keeps a
+ * bounded backlog of recent events by version, and a client reconnecting with
+ * {@code Last-Event-ID}, to this node or another, is replayed only what it missed. If the backlog
+ * doesn't hold every version since then, the client is told to
+ * {@link ChecklistEventDTO#RESYNC resync} with a full fetch instead. A checklist left without
+ * subscribers or events for {@code channel-idle-ms} gives up its backlog.
+ * <p>
+ * Published events also go to the other nodes over the {@link ChangeBus}, whose subscribers
+ * receive them through {@link #deliver}.
+ */
+@Service
+public class ChecklistEventService {
+
+  private static final Logger log = LoggerFactory.getLogger(ChecklistEventService.class);
+
+  // Queued in place of an event to keep an idle connection open
+  private static final ChecklistEventDTO HEARTBEAT = new ChecklistEventDTO();
+
+  private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+  @Autowired
+  private ChangeBus changeBus;
+
+  @Value("${checklist.events.backlog-size:256}")
+  private int backlogSize;
+
+  @Value("${checklist.events.emitter-timeout-ms:1800000}")
+  private long emitterTimeoutMs;
+
+  @Value("${checklist.events.channel-idle-ms:600000}")
+  private long channelIdleMs;
+
+  /**
+   * @param currentVersion the checklist's version as stored, read from the primary
+   */
+  public SseEmitter subscribe(Long checklistId, Long lastEventId, long currentVersion) {
+    SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+    Subscriber subscriber = new Subscriber(emitter, lastEventId != null ? lastEventId : 0L);
+    Channel channel;
+    do {
+      channel = channel(checklistId);
+    } while (!channel.attach(subscriber, checklistId, lastEventId, currentVersion));
+
+    Channel attached = channel;
+    emitter.onCompletion(() -> attached.remove(subscriber));
+    emitter.onTimeout(() -> attached.remove(subscriber));
+    emitter.onError(e -> attached.remove(subscriber));
+    attached.drain(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Sends the event to every subscriber, here and on the other nodes. Within a transaction that
+   * waits until it commits, so nobody hears of a change that is rolled back, or reloads the state
+   * from before it.
+   *
+   * @param version the checklist version the change produced
+   */
+  public void publish(ChecklistEventDTO event, long version) {
+    event.setVersion(version);
+    afterCommit(() -> {
+      channel(event.getChecklistId()).publish(event);
+      changeBus.publish(event.getChecklistId(), version, event);
+    });
+  }
+
+  /**
+   * Tells the other nodes about a change that has no subscribers here, such as a new checklist.
+   * Such changes carry no version.
+   */
+  public void announce(ChecklistEventDTO event) {
+    afterCommit(() -> changeBus.publish(event.getChecklistId(), 0, event));
+  }
+
+  /**
+   * Sends an event published on another node to this node's subscribers.
+   */
+  public void deliver(ChecklistEventDTO event) {
+    Channel channel = channel(event.getChecklistId());
+    if (ChecklistEventDTO.RESYNC.equals(event.getType())) {
+      channel.resync(event.getChecklistId(), event.getVersion());
+    } else {
+      channel.publish(event);
+    }
+  }
+
+  /**
+   * Tells every subscriber on this node to resync, after events may have been missed.
+   */
+  public void resyncAll() {
+    channels.forEach((checklistId, channel) -> channel.resync(checklistId, 0));
+  }
+
+  /**
+   * The newest version this node has seen an event for, or 0.
+   */
+  public long latestVersion(Long checklistId) {
+    return channel(checklistId).latestVersion();
+  }
+
+  @Scheduled(fixedDelayString = "${checklist.events.heartbeat-ms:15000}")
+  public void heartbeat() {
+    long idleSince = System.currentTimeMillis() - channelIdleMs;
+    channels.forEach((checklistId, channel) -> {
+      if (channel.closeIfIdle(idleSince)) {
+        channels.remove(checklistId, channel);
+      } else {
+        channel.heartbeat();
+      }
+    });
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private Channel channel(Long checklistId) {
+    return channels.computeIfAbsent(checklistId, id -> new Channel());
+  }
+
+  private final class Subscriber {
+    final SseEmitter emitter;
+    // The version the client already has; older events, arriving late, are skipped
+    final long after;
+    // Guarded by the channel. Only the thread that set draining sends, so events go out in order
+    final Deque<ChecklistEventDTO> outbox = new ArrayDeque<>();
+    boolean draining;
+
+    Subscriber(SseEmitter emitter, long after) {
+      this.emitter = emitter;
+      this.after = after;
+    }
+  }
+
+  /**
+   * A checklist's subscribers and recent events. The lock only guards this state: events are
+   * queued per subscriber under it and sent outside it, so a slow client holds up nobody else.
+   */
+  private final class Channel {
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final NavigableMap<Long, ChecklistEventDTO> backlog = new TreeMap<>();
+    private long latest;
+    private long lastActive = System.currentTimeMillis();
+    private boolean closed;
+
+    /**
+     * Queues what the subscriber missed and adds it; the caller must {@link #drain} it after.
+     *
+     * @return false if the channel was pruned meanwhile and a new one must be used
+     */
+    synchronized boolean attach(Subscriber subscriber, Long checklistId, Long lastEventId, long currentVersion) {
+      if (closed) {
+        return false;
+      }
+      lastActive = System.currentTimeMillis();
+      latest = Math.max(latest, currentVersion);
+      // A client ahead of this node only needs the events still to come
+      if (lastEventId != null && lastEventId < latest) {
+        replay(subscriber, checklistId, lastEventId);
+      }
+      subscribers.add(subscriber);
+      // The subscribing thread sends the replay, and anything published before it gets to
+      subscriber.draining = true;
+      return true;
+    }
+
+    synchronized void remove(Subscriber subscriber) {
+      subscribers.remove(subscriber);
+      lastActive = System.currentTimeMillis();
+    }
+
+    synchronized long latestVersion() {
+      return latest;
+    }
+
+    void publish(ChecklistEventDTO event) {
+      long version = event.getVersion();
+      List<Subscriber> ready = new ArrayList<>();
+      synchronized (this) {
+        lastActive = System.currentTimeMillis();
+        latest = Math.max(latest, version);
+        backlog.put(version, event);
+        while (backlog.size() > backlogSize) {
+          backlog.pollFirstEntry();
+        }
+        for (Subscriber subscriber : subscribers) {
+          if (version > subscriber.after && enqueue(subscriber, event)) {
+            ready.add(subscriber);
+          }
+        }
+      }
+      ready.forEach(this::drain);
+    }
+
+    /**
+     * Tells every subscriber to resync. Events up to now may be missing, so none are replayed.
+     */
+    void resync(Long checklistId, long version) {
+      List<Subscriber> ready = new ArrayList<>();
+      synchronized (this) {
+        latest = Math.max(latest, version);
+        backlog.clear();
+        ChecklistEventDTO resync = resyncEvent(checklistId);
+        for (Subscriber subscriber : subscribers) {
+          if (enqueue(subscriber, resync)) {
+            ready.add(subscriber);
+          }
+        }
+      }
+      ready.forEach(this::drain);
+    }
+
+    void heartbeat() {
+      List<Subscriber> ready = new ArrayList<>();
+      synchronized (this) {
+        for (Subscriber subscriber : subscribers) {
+          // One still sending shows the connection isn't idle
+          if (!subscriber.draining && enqueue(subscriber, HEARTBEAT)) {
+            ready.add(subscriber);
+          }
+        }
+      }
+      ready.forEach(this::drain);
+    }
+
+    /**
+     * Closes the channel if nobody is subscribed and it has been quiet since the given time;
+     * anything left in its backlog is old enough for a reconnecting client to resync instead.
+     */
+    synchronized boolean closeIfIdle(long idleSince) {
+      closed = subscribers.isEmpty() && lastActive < idleSince;
+      return closed;
+    }
+
+    /**
+     * Sends the subscriber's queued events, unless another thread already is.
+     */
+    void drain(Subscriber subscriber) {
+      while (true) {
+        ChecklistEventDTO next;
+        synchronized (this) {
+          next = subscriber.outbox.poll();
+          if (next == null) {
+            subscriber.draining = false;
+            return;
+          }
+        }
+        try {
+          // Built per send: a builder can't be sent twice
+          subscriber.emitter.send(next == HEARTBEAT ? SseEmitter.event().comment("heartbeat") : toSse(next));
+        } catch (IOException | IllegalStateException e) {
+          // The container reports the broken connection through onError; just stop sending to it
+          log.debug("Dropping an event subscriber: {}", e.getMessage());
+          synchronized (this) {
+            subscribers.remove(subscriber);
+            subscriber.outbox.clear();
+          }
+          return;
+        }
+      }
+    }
+
+    /**
+     * @return true if the caller must drain the subscriber
+     */
+    private boolean enqueue(Subscriber subscriber, ChecklistEventDTO event) {
+      if (subscriber.outbox.size() >= backlogSize) {
+        // Too far behind; it reconnects and is replayed or resynced from Last-Event-ID
+        subscribers.remove(subscriber);
+        subscriber.outbox.clear();
+        subscriber.emitter.complete();
+        return false;
+      }
+      subscriber.outbox.add(event);
+      if (subscriber.draining) {
+        return false;
+      }
+      subscriber.draining = true;
+      return true;
+    }
+
+    private void replay(Subscriber subscriber, Long checklistId, long lastEventId) {
+      // Covered only if every version since the client's is here; a gap is a change this node never heard of
+      SortedMap<Long, ChecklistEventDTO> missed = backlog.subMap(lastEventId, false, latest, true);
+      if (missed.size() != latest - lastEventId) {
+        enqueue(subscriber, resyncEvent(checklistId));
+        return;
+      }
+      for (ChecklistEventDTO event : missed.values()) {
+        enqueue(subscriber, event);
+      }
+    }
+
+    private ChecklistEventDTO resyncEvent(Long checklistId) {
+      ChecklistEventDTO resync = new ChecklistEventDTO(ChecklistEventDTO.RESYNC, checklistId);
+      resync.setVersion(latest);
+      return resync;
+    }
+
+    private SseEmitter.SseEventBuilder toSse(ChecklistEventDTO event) {
+      return SseEmitter.event()
+          .id(Long.toString(event.getVersion()))
+          .name(event.getType())
+          .data(event);
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package com.jcw.checklist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.dto.ChecklistSummaryDTO;
+import com.jcw.checklist.model.Checklist;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Creates checklists together with their items in one transaction.
+ * <p>
+ * Items get ids from the pooled {@code checklist_items_seq}, so Hibernate can send their
+ * INSERTs as JDBC batches. The persistence context is flushed and cleared every
+ * {@link #CHUNK_SIZE} items, which keeps memory bounded when importing very large lists.
+ * <p>
+ * Copies of an existing checklist never pass through memory: each table is copied with one
+ * {@code INSERT ... SELECT}, so a copy costs the same few statements whatever its size.
+ */
+@Service
+public class ChecklistImportService {
+
+  private static final int CHUNK_SIZE = 500;
+  private static final int MAX_NAME_LENGTH = 100;
+  private static final int MAX_CONTENT_LENGTH = 255;
+
+  // Draws one block of ids from the sequence per ID_BLOCK_SIZE items and uses all of it, the
+  // same ids Hibernate would have taken. Blocks are numbered by their ids, so ids grow with
+  // display order and the copy sorts exactly like its source
+  private static final String COPY_ITEMS =
+      "INSERT INTO checklist_items (id, checklist_id, content, display_order) "
+          + "SELECT block.hi - " + (ChecklistItem.ID_BLOCK_SIZE - 1)
+          + " + MOD(source.position - 1, " + ChecklistItem.ID_BLOCK_SIZE + "), "
+          + ":targetId, source.content, source.display_order FROM ("
+          + "SELECT content, display_order, ROW_NUMBER() OVER (ORDER BY display_order, id) AS position "
+          + "FROM checklist_items WHERE checklist_id = :sourceId) source "
+          + "JOIN (SELECT hi, ROW_NUMBER() OVER (ORDER BY hi) AS number FROM ("
+          + "SELECT %s AS hi FROM GENERATE_SERIES(1, (SELECT (COUNT(*) + " + (ChecklistItem.ID_BLOCK_SIZE - 1) + ") / "
+          + ChecklistItem.ID_BLOCK_SIZE + " FROM checklist_items WHERE checklist_id = :sourceId))) blocks) block "
+          + "ON block.number = (source.position - 1) / " + ChecklistItem.ID_BLOCK_SIZE + " + 1";
+
+  private static final String COPY_PARTICIPANTS =
+      "INSERT INTO checklist_participants (checklist_id, user_id, joined_at) "
+          + "SELECT :targetId, user_id, joined_at FROM checklist_participants WHERE checklist_id = :sourceId";
+
+  // Only participants' checked items, which is what the checked counter counts. Source and copy
+  // sort alike, so an item and its copy have the same position
+  private static final String COPY_PROGRESS =
+      "INSERT INTO user_checklist_progress (user_id, checklist_item_id, checked) "
+          + "SELECT p.user_id, target.id, TRUE FROM ("
+          + "SELECT id, ROW_NUMBER() OVER (ORDER BY display_order, id) AS position "
+          + "FROM checklist_items WHERE checklist_id = :sourceId) source "
+          + "JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY display_order, id) AS position "
+          + "FROM checklist_items WHERE checklist_id = :targetId) target ON target.position = source.position "
+          + "JOIN user_checklist_progress p ON p.checklist_item_id = source.id AND p.checked "
+          + "JOIN checklist_participants cp ON cp.checklist_id = :sourceId AND cp.user_id = p.user_id";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+
+  private String copyItemsSql;
+
+  @PostConstruct
+  void prepareCopy() {
+    Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices().getDialect();
+    copyItemsSql = String.format(COPY_ITEMS,
+        dialect.getSequenceSupport().getSelectSequenceNextValString("checklist_items_seq"));
+  }
+
+  /**
+   * Creates a checklist from item contents in order; blank items are skipped.
+   */
+  @Transactional
+  public ChecklistSummaryDTO create(String name, Iterator<String> contents) {
+    name = validName(name);
+
+    Checklist checklist = new Checklist();
+    checklist.setName(name);
+    entityManager.persist(checklist);
+    entityManager.flush();
+    Long checklistId = checklist.getId();
+    statsRepo.create(checklistId);
+
+    long displayOrder = 0;
+    long count = 0;
+    int pending = 0;
+    while (contents.hasNext()) {
+      String content = contents.next();
+      if (content == null || content.trim().isEmpty()) {
+        continue;
+      }
+      content = content.trim();
+      if (content.length() > MAX_CONTENT_LENGTH) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+            "Item " + (count + 1) + " is longer than " + MAX_CONTENT_LENGTH + " characters");
+      }
+
+      displayOrder += ChecklistItem.ORDER_GAP;
+      ChecklistItem item = new ChecklistItem();
+      item.setContent(content);
+      item.setChecklist(checklist);
+      item.setDisplayOrder(displayOrder);
+      entityManager.persist(item);
+      count++;
+
+      if (++pending == CHUNK_SIZE) {
+        entityManager.flush();
+        entityManager.clear();
+        checklist = entityManager.getReference(Checklist.class, checklistId);
+        pending = 0;
+      }
+    }
+
+    statsRepo.recordItemsAdded(checklistId, count);
+    return new ChecklistSummaryDTO(checklistId, name, count, 0L, 0L);
+  }
+
+  /**
+   * Creates a checklist with copies of another's items, with the same display order keys. With
+   * {@code keepProgress} the participants and their checked items are copied too; otherwise
+   * the copy starts with neither.
+   * <p>
+   * Runs at repeatable read so all copies see the source as it was at the first statement.
+   *
+   * @param name the copy's name, or null to keep the source's
+   */
+  @Transactional(isolation = Isolation.REPEATABLE_READ)
+  public ChecklistSummaryDTO copy(Long sourceId, String name, boolean keepProgress) {
+    Checklist source = entityManager.find(Checklist.class, sourceId);
+    if (source == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found");
+    }
+    name = name == null ? source.getName() : validName(name);
+
+    Checklist checklist = new Checklist();
+    checklist.setName(name);
+    entityManager.persist(checklist);
+    entityManager.flush();
+    Long checklistId = checklist.getId();
+    statsRepo.create(checklistId);
+
+    long items = copy(copyItemsSql, "checklist_items", sourceId, checklistId);
+    long participants = 0;
+    long checked = 0;
+    if (keepProgress) {
+      participants = copy(COPY_PARTICIPANTS, "checklist_participants", sourceId, checklistId);
+      checked = copy(COPY_PROGRESS, "user_checklist_progress", sourceId, checklistId);
+    }
+
+    statsRepo.recordItemsAdded(checklistId, items);
+    if (participants > 0) {
+      statsRepo.recordParticipants(checklistId, participants, checked);
+    }
+    return new ChecklistSummaryDTO(checklistId, name, items, participants, checked);
+  }
+
+  // Naming the table written keeps Hibernate from evicting the whole second-level cache
+  private int copy(String sql, String table, Long sourceId, Long targetId) {
+    return entityManager.createNativeQuery(sql)
+        .setHint(HibernateHints.HINT_NATIVE_SPACES, table)
+        .setParameter("sourceId", sourceId)
+        .setParameter("targetId", targetId)
+        .executeUpdate();
+  }
+
+  private static String validName(String name) {
+    if (name == null || name.trim().isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Checklist name is required");
+    }
+    if (name.trim().length() > MAX_NAME_LENGTH) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Checklist name is too long");
+    }
+    return name.trim();
+  }
+
+  /**
+   * Items from newline-delimited JSON, one {@code {"content": "..."}} object per line.
+   */
+  public Iterator<String> ndjsonItems(BufferedReader reader) {
+    return new LineIterator(reader) {
+      @Override
+      String parse(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (!node.hasNonNull("content")) {
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line " + lineNumber() + " has no content");
+        }
+        return node.get("content").asText();
+      }
+    };
+  }
+
+  /**
+   * Items from CSV, taking the first column of each row. Quoted fields may contain commas and
+   * doubled quotes but not line breaks.
+   */
+  public Iterator<String> csvItems(BufferedReader reader, boolean header) {
+    LineIterator items = new LineIterator(reader) {
+      @Override
+      String parse(String line) {
+        return firstCsvField(line);
+      }
+    };
+    if (header && items.hasNext()) {
+      items.next();
+    }
+    return items;
+  }
+
+  private static String firstCsvField(String line) {
+    if (!line.startsWith("\"")) {
+      int comma = line.indexOf(',');
+      return comma < 0 ? line : line.substring(0, comma);
+    }
+    StringBuilder field = new StringBuilder();
+    for (int i = 1; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          return field.toString();
+        }
+      } else {
+        field.append(c);
+      }
+    }
+    return field.toString();
+  }
+
+  /**
+   * Reads one item per non-blank line, lazily, so the request body is never held in memory.
+   */
+  private abstract static class LineIterator implements Iterator<String> {
+    private final BufferedReader reader;
+    private String next;
+    private boolean pending;
+    private int lineNumber;
+
+    LineIterator(BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    abstract String parse(String line) throws IOException;
+
+    int lineNumber() {
+      return lineNumber;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (pending) {
+        return true;
+      }
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lineNumber++;
+          if (!line.isBlank()) {
+            next = parse(line);
+            pending = true;
+            return true;
+          }
+        }
+        return false;
+      } catch (JsonProcessingException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line " + lineNumber + " is not valid JSON");
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public String next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      pending = false;
+      return next;
+    }
+  }
+}
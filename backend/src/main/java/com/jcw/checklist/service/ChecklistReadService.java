@@ -0,0 +1,125 @@
+package com.jcw.checklist.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.cache.ProgressMatrix;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ItemProgressRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the checklist view.
+ * <p>
+ * Everything here reads the participants plus one projection query of items in display order
+ * joined with their checked progress, so no item or progress entities are loaded. Methods run in
+ * read-only transactions, which Spring maps to Hibernate's manual flush mode: nothing is
+ * snapshotted for dirty checking or flushed at commit.
+ */
+@Service
+public class ChecklistReadService {
+
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * Loads the checklist's progress matrix for the cache, with a column per participant.
+   */
+  @Transactional(readOnly = true)
+  public ProgressMatrix loadProgressMatrix(Long checklistId) {
+    List<User> participants = participantService.participants(checklistId);
+    try (Stream<ItemProgressRow> rows = checklistItemRepo.streamWithCheckedProgress(checklistId)) {
+      return ProgressMatrix.fromRows(rows.toList(), participants);
+    }
+  }
+
+  /**
+   * Writes one {@code {"id", "content", "progress"}} line per item, in display order, with the
+   * same progress map as the JSON checklist view.
+   * <p>
+   * Each item is written as soon as its last row has been seen, so only the participant list and
+   * the current item are held in memory. The query's connection stays open until the client has
+   * received the last item.
+   */
+  @Transactional(readOnly = true)
+  public void writeItems(Long checklistId, OutputStream out) throws IOException {
+    List<User> participants = participantService.participants(checklistId);
+    try (Stream<ItemProgressRow> rows = checklistItemRepo.streamWithCheckedProgress(checklistId);
+         JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+      // The servlet container owns the response stream
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // Lines are ended explicitly instead of separating root values with spaces
+      json.setRootValueSeparator(null);
+      ItemWriter writer = new ItemWriter(json, participants);
+      rows.forEach(writer::accept);
+      writer.finish();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Groups consecutive rows of the same item and writes the item once the next one starts.
+   */
+  private static final class ItemWriter {
+    private final JsonGenerator json;
+    private final List<User> participants;
+    private final Set<UUID> checkedBy = new HashSet<>();
+    private Long itemId;
+    private String content;
+
+    ItemWriter(JsonGenerator json, List<User> participants) {
+      this.json = json;
+      this.participants = participants;
+    }
+
+    void accept(ItemProgressRow row) {
+      if (!row.itemId().equals(itemId)) {
+        finish();
+        itemId = row.itemId();
+        content = row.content();
+      }
+      if (row.checkedBy() != null) {
+        checkedBy.add(row.checkedBy());
+      }
+    }
+
+    void finish() {
+      if (itemId == null) {
+        return;
+      }
+      try {
+        json.writeStartObject();
+        json.writeNumberField("id", itemId);
+        json.writeStringField("content", content);
+        // Only participants get a progress entry, as in the checklist view
+        json.writeObjectFieldStart("progress");
+        for (User participant : participants) {
+          json.writeBooleanField(participant.getUsername(), checkedBy.contains(participant.getId()));
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+        json.writeRaw('\n');
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      itemId = null;
+      checkedBy.clear();
+    }
+  }
+}
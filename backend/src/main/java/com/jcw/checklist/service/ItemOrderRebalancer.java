@@ -0,0 +1,89 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.cache.ChecklistStructureCache;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ChecklistRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Re-spaces a checklist's display order keys {@link ChecklistItem#ORDER_GAP} apart once
+ * repeated moves into the same spot have used up the gap between neighbours.
+ * <p>
+ * The order stays the same but every key may change, so a rebalance is a change of the
+ * checklist like any other: its version is bumped and subscribers are told, or cached views and
+ * page cursors would keep the old keys.
+ */
+@Component
+public class ItemOrderRebalancer {
+
+  private static final Logger log = LoggerFactory.getLogger(ItemOrderRebalancer.class);
+
+  @Autowired
+  private ChecklistRepository checklistRepo;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private ChecklistStructureCache structureCache;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+  @Autowired
+  private ChecklistEventService eventService;
+
+  /**
+   * Rewrites the keys in place, keeping the current order. The caller must already hold the
+   * checklist's reorder lock, and bump the version and publish its change once committed.
+   *
+   * @return the item ids in order
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public List<Long> rebalance(Long checklistId) {
+    List<ChecklistItem> items = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId);
+    long displayOrder = 0;
+    for (ChecklistItem item : items) {
+      displayOrder += ChecklistItem.ORDER_GAP;
+      // Hibernate only issues UPDATEs for keys that actually change
+      item.setDisplayOrder(displayOrder);
+    }
+    structureCache.evictItemOrderAfterCommit(checklistId);
+    log.debug("Rebalanced {} items in checklist {}", items.size(), checklistId);
+    return items.stream().map(ChecklistItem::getId).toList();
+  }
+
+  @Async
+  public void rebalanceInBackground(Long checklistId) {
+    List<Long> itemIds;
+    try {
+      itemIds = transactionTemplate.execute(status ->
+          checklistRepo.findForReorder(checklistId).map(checklist -> rebalance(checklistId)).orElse(null));
+    } catch (OptimisticLockingFailureException e) {
+      // A concurrent move won; it will schedule another rebalance if it still needs one
+      log.debug("Skipped rebalancing checklist {}: reordered concurrently", checklistId);
+      return;
+    }
+    if (itemIds == null) {
+      return;
+    }
+
+    progressCache.invalidate(checklistId);
+    long version = statsRepo.bumpVersion(checklistId);
+    eventService.publish(ChecklistEventDTO.itemsReordered(checklistId, itemIds), version);
+  }
+}
@@ -0,0 +1,174 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.cache.ChecklistStructureCache;
+import com.jcw.checklist.dto.ItemMoveResultDTO;
+import com.jcw.checklist.model.Checklist;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ChecklistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the sparse {@code display_order} keys of checklist items.
+ * <p>
+ * Keys are spaced {@link ChecklistItem#ORDER_GAP} apart, so moving one item only rewrites that
+ * item's key to the midpoint of its new neighbours. Every reorder takes the checklist's
+ * {@code order_version} optimistic lock, so two users reordering the same list at once get a
+ * conflict rather than silently interleaved keys.
+ */
+@Service
+public class ItemOrderService {
+
+  // Once a move leaves less room than this between neighbours, respace the list in the background
+  private static final long LOW_WATER_GAP = 64;
+
+  @Autowired
+  private ChecklistRepository checklistRepo;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ItemOrderRebalancer rebalancer;
+  @Autowired
+  private ChecklistStructureCache structureCache;
+
+  /**
+   * Key for an item appended to the end of the checklist.
+   */
+  public long nextDisplayOrder(Long checklistId) {
+    Long max = checklistItemRepo.findMaxDisplayOrder(checklistId);
+    return max == null ? ChecklistItem.ORDER_GAP : max + ChecklistItem.ORDER_GAP;
+  }
+
+  /**
+   * Replaces the whole order with the given item ids.
+   */
+  @Transactional
+  public void reorder(Long checklistId, List<Long> itemIds) {
+    lockForReorder(checklistId, null);
+
+    // Validate that all item IDs belong to this checklist
+    List<ChecklistItem> items = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId);
+    Map<Long, ChecklistItem> itemMap = new HashMap<>();
+    for (ChecklistItem item : items) {
+      itemMap.put(item.getId(), item);
+    }
+
+    // Validate request
+    if (itemIds == null || itemIds.size() != items.size()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reorder request");
+    }
+
+    // Update display order for each item; unchanged keys are not written
+    for (int i = 0; i < itemIds.size(); i++) {
+      ChecklistItem item = itemMap.get(itemIds.get(i));
+      if (item == null) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item not found in checklist");
+      }
+      item.setDisplayOrder((i + 1) * ChecklistItem.ORDER_GAP);
+    }
+  }
+
+  /**
+   * Moves one item directly after {@code afterItemId}, or directly before {@code beforeItemId} if
+   * no after item is given. When both are given they must still be adjacent.
+   */
+  @Transactional
+  public ItemMoveResultDTO move(Long checklistId, Long itemId, Long afterItemId, Long beforeItemId,
+                                Long expectedOrderVersion) {
+    if (afterItemId == null && beforeItemId == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterItemId or beforeItemId is required");
+    }
+    if (itemId.equals(afterItemId) || itemId.equals(beforeItemId)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot move an item relative to itself");
+    }
+
+    Checklist checklist = lockForReorder(checklistId, expectedOrderVersion);
+    ChecklistItem item = findItem(checklistId, itemId);
+
+    Slot slot = locate(checklistId, item, afterItemId, beforeItemId);
+    if (slot.gap() < 2) {
+      rebalancer.rebalance(checklistId);
+      slot = locate(checklistId, item, afterItemId, beforeItemId);
+    } else if (slot.gap() < LOW_WATER_GAP) {
+      rebalanceAfterCommit(checklistId);
+    }
+
+    item.setDisplayOrder(slot.key());
+    return new ItemMoveResultDTO(item.getId(), slot.key(), slot.afterItemId(), checklist.getOrderVersion() + 1);
+  }
+
+  private Checklist lockForReorder(Long checklistId, Long expectedOrderVersion) {
+    Checklist checklist = checklistRepo.findForReorder(checklistId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Checklist not found"));
+    if (expectedOrderVersion != null && !expectedOrderVersion.equals(checklist.getOrderVersion())) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Checklist was reordered by someone else");
+    }
+    structureCache.evictItemOrderAfterCommit(checklistId);
+    return checklist;
+  }
+
+  private ChecklistItem findItem(Long checklistId, Long itemId) {
+    ChecklistItem item = checklistItemRepo.findById(itemId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item not found in checklist"));
+    if (!item.getChecklist().getId().equals(checklistId)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item not found in checklist");
+    }
+    return item;
+  }
+
+  private Slot locate(Long checklistId, ChecklistItem item, Long afterItemId, Long beforeItemId) {
+    if (afterItemId != null) {
+      ChecklistItem after = findItem(checklistId, afterItemId);
+      ChecklistItem next = first(checklistItemRepo.findItemsAfter(
+          checklistId, after.getDisplayOrder(), after.getId(), item.getId(), Limit.of(1)));
+      if (beforeItemId != null && (next == null || !next.getId().equals(beforeItemId))) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Items are no longer adjacent");
+      }
+      long upper = next == null ? after.getDisplayOrder() + 2 * ChecklistItem.ORDER_GAP : next.getDisplayOrder();
+      return new Slot(after.getId(), after.getDisplayOrder(), upper);
+    }
+
+    ChecklistItem before = findItem(checklistId, beforeItemId);
+    ChecklistItem previous = first(checklistItemRepo.findItemsBefore(
+        checklistId, before.getDisplayOrder(), before.getId(), item.getId(), Limit.of(1)));
+    long lower = previous == null ? before.getDisplayOrder() - 2 * ChecklistItem.ORDER_GAP : previous.getDisplayOrder();
+    return new Slot(previous == null ? null : previous.getId(), lower, before.getDisplayOrder());
+  }
+
+  private void rebalanceAfterCommit(Long checklistId) {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        rebalancer.rebalanceInBackground(checklistId);
+      }
+    });
+  }
+
+  private static ChecklistItem first(List<ChecklistItem> items) {
+    return items.isEmpty() ? null : items.get(0);
+  }
+
+  /**
+   * The open interval between the neighbours an item is being moved between.
+   */
+  private record Slot(Long afterItemId, long lower, long upper) {
+    long gap() {
+      return upper - lower;
+    }
+
+    long key() {
+      return lower + gap() / 2;
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.dto.SearchHitDTO;
+import com.jcw.checklist.dto.SearchResultDTO;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.SearchableItemRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over item content, for search across all checklists.
+ * <p>
+ * Content is split into lowercase, accent-free words. Terms are kept sorted, so a query word
+ * also matches every term it is a prefix of, which makes type-ahead work. Every query word must
+ * match; an item scores the inverse document frequency of each term it matched, halved for a
+ * prefix match, so rare words outrank common ones.
+ * <p>
+ * The index is built from one streamed query once the application is ready and is then kept up
+ * to date by the endpoints that add items. Items are never edited or deleted, so entries are
+ * never removed. Each instance holds its own copy.
+ */
+@Service
+public class ItemSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+  private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final double PREFIX_WEIGHT = 0.5;
+
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private MeterRegistry registry;
+
+  // Guarded by lock
+  private final NavigableMap<String, List<Long>> postings = new TreeMap<>();
+  private final Map<Long, Doc> docs = new HashMap<>();
+  private final Map<Long, String> checklistNames = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private volatile boolean ready;
+  private TransactionTemplate readOnlyTransaction;
+
+  private record Doc(long checklistId, String content, String[] terms) {
+  }
+
+  private record Hit(long itemId, Doc doc, double score) {
+  }
+
+  @PostConstruct
+  void init() {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+    Gauge.builder("checklist.search.items", this, index -> index.size(index.docs)).register(registry);
+    Gauge.builder("checklist.search.terms", this, index -> index.size(index.postings)).register(registry);
+  }
+
+  /**
+   * Builds the index off the startup thread; searches are refused until it is done. Items added
+   * meanwhile go straight in, and the build skips items it finds already indexed.
+   */
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    long started = System.nanoTime();
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<SearchableItemRow> rows = checklistItemRepo.streamSearchable()) {
+        rows.forEach(this::add);
+      }
+    });
+    ready = true;
+    log.info("Indexed {} items for search in {} ms", size(docs), (System.nanoTime() - started) / 1_000_000);
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Indexes every item of a checklist. Call it after the transaction that created them commits.
+   */
+  public void indexChecklist(Long checklistId) {
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<SearchableItemRow> rows = checklistItemRepo.streamSearchable(checklistId)) {
+        rows.forEach(this::add);
+      }
+    });
+  }
+
+  public void add(SearchableItemRow row) {
+    add(row.itemId(), row.checklistId(), row.checklistName(), row.content());
+  }
+
+  /**
+   * Indexes one item; indexing the same item again is a no-op.
+   */
+  public void add(long itemId, long checklistId, String checklistName, String content) {
+    String[] terms = tokenize(content).toArray(String[]::new);
+    lock.writeLock().lock();
+    try {
+      if (docs.putIfAbsent(itemId, new Doc(checklistId, content, terms)) != null) {
+        return;
+      }
+      checklistNames.putIfAbsent(checklistId, checklistName);
+      for (String term : terms) {
+        postings.computeIfAbsent(term, t -> new ArrayList<>(1)).add(itemId);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Finds the items matching every word of the query, best first; ties go to the older item.
+   */
+  public SearchResultDTO search(String query, int offset, int limit) {
+    List<String> words = new ArrayList<>(tokenize(query));
+    if (words.isEmpty()) {
+      return new SearchResultDTO(0, List.of());
+    }
+
+    List<Hit> hits = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      // Candidates come from the most selective word; the others are checked per item
+      String rarest = null;
+      int rarestCount = Integer.MAX_VALUE;
+      for (String word : words) {
+        int count = 0;
+        for (List<Long> items : withPrefix(word).values()) {
+          count += items.size();
+        }
+        if (count < rarestCount) {
+          rarest = word;
+          rarestCount = count;
+        }
+      }
+
+      Set<Long> candidates = new LinkedHashSet<>();
+      withPrefix(rarest).values().forEach(candidates::addAll);
+      for (Long itemId : candidates) {
+        Doc doc = docs.get(itemId);
+        double score = score(doc, words);
+        if (score > 0) {
+          hits.add(new Hit(itemId, doc, score));
+        }
+      }
+
+      hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::itemId));
+      List<SearchHitDTO> page = new ArrayList<>();
+      // Long arithmetic, as offset + limit overflows for offsets near Integer.MAX_VALUE
+      int from = Math.min(offset, hits.size());
+      int to = (int) Math.min((long) offset + limit, hits.size());
+      for (Hit hit : hits.subList(from, to)) {
+        page.add(new SearchHitDTO(hit.itemId(), hit.doc().checklistId(),
+            checklistNames.get(hit.doc().checklistId()), hit.doc().content(), hit.score()));
+      }
+      return new SearchResultDTO(hits.size(), page);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Sum of each query word's best match in the item, or 0 if any word has none.
+   */
+  private double score(Doc doc, List<String> words) {
+    double total = 0;
+    for (String word : words) {
+      double best = 0;
+      for (String term : doc.terms()) {
+        if (term.startsWith(word)) {
+          double weight = idf(term) * (term.length() == word.length() ? 1 : PREFIX_WEIGHT);
+          best = Math.max(best, weight);
+        }
+      }
+      if (best == 0) {
+        return 0;
+      }
+      total += best;
+    }
+    return total;
+  }
+
+  private double idf(String term) {
+    return Math.log(1 + (double) docs.size() / postings.get(term).size());
+  }
+
+  private NavigableMap<String, List<Long>> withPrefix(String prefix) {
+    return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+  }
+
+  private int size(Map<?, ?> map) {
+    lock.readLock().lock();
+    try {
+      return map.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * The distinct words of a text: lowercase, accents removed, split on anything that is not a
+   * letter or digit.
+   */
+  static Set<String> tokenize(String text) {
+    Set<String> terms = new LinkedHashSet<>();
+    if (text == null) {
+      return terms;
+    }
+    String folded = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+    for (String term : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+}
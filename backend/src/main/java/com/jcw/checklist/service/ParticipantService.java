@@ -0,0 +1,95 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.repository.ChecklistParticipantRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import com.jcw.checklist.repository.UserChecklistProgressRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tracks who takes part in a checklist. Only participants get a progress column when the
+ * checklist is viewed; anyone writing progress becomes one automatically.
+ */
+@Service
+public class ParticipantService {
+
+  @Autowired
+  private ChecklistParticipantRepository participantRepo;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+  @Autowired
+  private UserChecklistProgressRepository progressRepo;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ChecklistEventService eventService;
+  @Autowired
+  private ProgressWriteBuffer progressWriteBuffer;
+
+  public List<User> participants(Long checklistId) {
+    return participantRepo.findParticipantUsers(checklistId);
+  }
+
+  /**
+   * Adds the user to the checklist's participants. Within a transaction, the cache and
+   * subscribers only hear of it once that commits.
+   *
+   * @return true if they were not a participant already
+   */
+  public boolean join(Long checklistId, UUID userId) {
+    // A cached matrix with a column for the user means they already joined
+    if (progressCache.hasParticipant(checklistId, userId)) {
+      return false;
+    }
+
+    int inserted;
+    try {
+      inserted = participantRepo.insertIfAbsent(checklistId, userId);
+    } catch (DuplicateKeyException e) {
+      // Lost a race with a concurrent join of the same user. PostgreSQL aborts the surrounding
+      // transaction on the error, so only a join running on its own can carry on
+      if (TransactionSynchronizationManager.isActualTransactionActive()) {
+        throw e;
+      }
+      return false;
+    }
+    if (inserted == 0) {
+      return false;
+    }
+
+    // Progress kept from an earlier membership counts again
+    progressWriteBuffer.flush();
+    progressCache.invalidateAfterCommit(checklistId);
+    long version = statsRepo.recordParticipants(checklistId, 1, progressRepo.countCheckedByUser(checklistId, userId));
+    eventService.publish(ChecklistEventDTO.participantJoined(checklistId, userId), version);
+    return true;
+  }
+
+  /**
+   * Removes the user from the checklist's participants. Their progress is kept in case they rejoin.
+   * The removal and the counters commit together; the cache and subscribers hear of it after.
+   *
+   * @return true if they were a participant
+   */
+  @Transactional
+  public boolean leave(Long checklistId, UUID userId) {
+    if (participantRepo.deleteParticipant(checklistId, userId) == 0) {
+      return false;
+    }
+
+    progressWriteBuffer.flush();
+    progressCache.invalidateAfterCommit(checklistId);
+    long version = statsRepo.recordParticipants(checklistId, -1, -progressRepo.countCheckedByUser(checklistId, userId));
+    eventService.publish(ChecklistEventDTO.participantLeft(checklistId, userId), version);
+    return true;
+  }
+}
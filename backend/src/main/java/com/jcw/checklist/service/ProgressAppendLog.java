@@ -0,0 +1,176 @@
+package com.jcw.checklist.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed-size, memory-mapped log of progress states that haven't reached the database yet.
+ * <p>
+ * Records are absolute states rather than flips, so replaying one that was already flushed is
+ * harmless. Each record starts with a tag byte and ends with a CRC-32 of its fields; the log ends
+ * at the first zero tag or bad checksum. The tag is written last, so the JVM dying mid-append
+ * leaves no record behind, and a record the OS only partly wrote out is caught by its checksum.
+ * <p>
+ * Writes land in the page cache, so they survive the JVM crashing. With {@code sync} a record
+ * is also forced to disk by {@link #sync}, so the machine losing power loses nothing
+ * acknowledged; without it, it can lose the records of the last few seconds. One sync covers
+ * every record written before it, so concurrent writers share the wait for the disk.
+ * {@link ProgressWriteBuffer} serializes appends and resets; syncs may run alongside them.
+ */
+class ProgressAppendLog implements Closeable {
+
+  private static final byte RECORD = 1;
+  private static final byte END = 0;
+  // Checklist id, item id, user id, checked
+  private static final int FIELD_BYTES = Long.BYTES * 4 + 1;
+  // Tag, fields, checksum
+  static final int RECORD_BYTES = 1 + FIELD_BYTES + Integer.BYTES;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final boolean sync;
+  // Generation (bumped by each reset) in the high half, end of the records in the low half, so
+  // later positions compare greater
+  private volatile long written;
+  private final Object syncLock = new Object();
+  // Guarded by syncLock; -1 while nothing of the current generation is known to be on disk
+  private long synced = -1;
+
+  ProgressAppendLog(Path path, int capacityBytes, boolean sync) throws IOException {
+    this.sync = sync;
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+  }
+
+  record Entry(long checklistId, long itemId, UUID userId, boolean checked) {
+  }
+
+  /**
+   * Reads every record from the start of the log and leaves the position after the last one.
+   */
+  List<Entry> read() {
+    List<Entry> entries = new ArrayList<>();
+    buffer.position(0);
+    while (buffer.remaining() >= RECORD_BYTES && buffer.get(buffer.position()) == RECORD) {
+      int start = buffer.position();
+      if (buffer.getInt(start + 1 + FIELD_BYTES) != checksum(start)) {
+        // Torn by a crash; nothing after it was acknowledged
+        break;
+      }
+      buffer.get();
+      long checklistId = buffer.getLong();
+      long itemId = buffer.getLong();
+      UUID userId = new UUID(buffer.getLong(), buffer.getLong());
+      entries.add(new Entry(checklistId, itemId, userId, buffer.get() != 0));
+      buffer.getInt();
+    }
+    written = buffer.position();
+    return entries;
+  }
+
+  /**
+   * Writes the record without waiting for the disk.
+   *
+   * @return the position to {@link #sync} to, or -1 if the log is full
+   */
+  long append(Entry entry) {
+    if (!write(entry)) {
+      return -1;
+    }
+    written = (written & ~0xFFFFFFFFL) | buffer.position();
+    return written;
+  }
+
+  /**
+   * The position after the last record written.
+   */
+  long position() {
+    return written;
+  }
+
+  /**
+   * Forces everything written up to the given position to disk, if {@code sync} is on. A
+   * position from before a reset is covered once the reset's records are.
+   */
+  void sync(long position) {
+    if (!sync) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (synced >= position) {
+        return;
+      }
+      long target = written;
+      int from = synced >>> 32 == target >>> 32 ? (int) synced : 0;
+      // Includes the end marker
+      buffer.force(from, (int) target - from + 1);
+      synced = target;
+    }
+  }
+
+  private boolean write(Entry entry) {
+    // Keep room for the end marker
+    if (buffer.remaining() < RECORD_BYTES + 1) {
+      return false;
+    }
+    int start = buffer.position();
+    buffer.position(start + 1)
+        .putLong(entry.checklistId())
+        .putLong(entry.itemId())
+        .putLong(entry.userId().getMostSignificantBits())
+        .putLong(entry.userId().getLeastSignificantBits())
+        .put((byte) (entry.checked() ? 1 : 0))
+        .putInt(checksum(start));
+    buffer.put(buffer.position(), END);
+    buffer.put(start, RECORD);
+    return true;
+  }
+
+  private int checksum(int start) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(start + 1, FIELD_BYTES));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Replaces the log's contents with the given entries, without waiting for the disk.
+   *
+   * @return the position to {@link #sync} to, or -1 if they don't fit
+   */
+  long reset(List<Entry> entries) {
+    // Records are rewritten in place, so none may be half-forced meanwhile
+    synchronized (syncLock) {
+      buffer.position(0);
+      buffer.put(0, END);
+      boolean fits = true;
+      for (Entry entry : entries) {
+        if (!write(entry)) {
+          fits = false;
+          break;
+        }
+      }
+      // Records from before moved, so syncing any position needs these on disk first
+      written = ((written >>> 32) + 1 << 32) | buffer.position();
+      synced = -1;
+      return fits ? written : -1;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+}
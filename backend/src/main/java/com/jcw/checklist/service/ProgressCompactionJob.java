@@ -0,0 +1,101 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.repository.ProgressCompactionRepository;
+import com.jcw.checklist.repository.ProgressCompactionRepository.Checkpoint;
+import com.jcw.checklist.repository.ProgressCompactionRepository.Row;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-time purge of the {@code checked = false} rows dense progress storage left behind.
+ * <p>
+ * Runs in the background once the application is ready, when sparse storage is on and the purge
+ * hasn't completed before. The table is walked in primary key order, {@code chunk-size} rows at a
+ * time; each chunk deletes its unchecked rows and moves the checkpoint in one short transaction,
+ * so row locks are only held for one chunk and a restart picks up after the last committed one.
+ * Unchecked rows never reappear behind the checkpoint, since sparse storage deletes them.
+ */
+@Service
+public class ProgressCompactionJob {
+
+  private static final Logger log = LoggerFactory.getLogger(ProgressCompactionJob.class);
+
+  @Autowired
+  private ProgressCompactionRepository compactionRepo;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private MeterRegistry registry;
+
+  @Value("${checklist.progress.sparse:true}")
+  private boolean sparse;
+  @Value("${checklist.progress.compaction.enabled:true}")
+  private boolean enabled;
+  @Value("${checklist.progress.compaction.chunk-size:1000}")
+  private int chunkSize;
+  @Value("${checklist.progress.compaction.pause-ms:50}")
+  private long pauseMs;
+
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void runIfPending() {
+    if (!sparse || !enabled || compactionRepo.findCheckpoint().completed()) {
+      return;
+    }
+    try {
+      run();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.info("Progress compaction interrupted; it resumes at the next start");
+    } catch (RuntimeException e) {
+      log.warn("Progress compaction failed; it resumes at the next start", e);
+    }
+  }
+
+  /**
+   * Purges chunk by chunk until the end of the table.
+   *
+   * @return the total number of rows purged, including by earlier runs
+   */
+  public long run() throws InterruptedException {
+    Counter purged = Counter.builder("checklist.progress.compaction.purged").register(registry);
+    log.info("Purging unchecked progress rows, {} per chunk", chunkSize);
+    while (true) {
+      Chunk chunk = transactionTemplate.execute(status -> compactChunk());
+      purged.increment(chunk.deleted());
+      if (chunk.checkpoint().completed()) {
+        log.info("Progress compaction complete, {} rows purged", chunk.checkpoint().purgedRows());
+        return chunk.checkpoint().purgedRows();
+      }
+      Thread.sleep(pauseMs);
+    }
+  }
+
+  private record Chunk(long deleted, Checkpoint checkpoint) {
+  }
+
+  private Chunk compactChunk() {
+    Checkpoint checkpoint = compactionRepo.findCheckpoint();
+    if (checkpoint.completed()) {
+      return new Chunk(0, checkpoint);
+    }
+    List<Row> rows = compactionRepo.findRowsAfter(checkpoint, chunkSize);
+    long deleted = compactionRepo.deleteUnchecked(rows);
+    boolean completed = rows.size() < chunkSize;
+    Row last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+    compactionRepo.saveCheckpoint(last == null ? checkpoint.lastUserId() : last.userId(),
+        last == null ? checkpoint.lastItemId() : last.itemId(), deleted, completed);
+    return new Chunk(deleted, compactionRepo.findCheckpoint());
+  }
+}
@@ -0,0 +1,137 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import com.jcw.checklist.dto.ProgressBatchResultDTO;
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import com.jcw.checklist.repository.ProgressWriteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Records users' progress on checklist items.
+ * <p>
+ * The item is checked against the checklist before anything is written. Joining the checklist,
+ * the write and the counter update then run in one transaction, so a rejected write leaves the
+ * user out of the checklist; the progress cache and subscribers hear of it once it commits.
+ */
+@Service
+public class ProgressService {
+
+  @Autowired
+  private ProgressWriteRepository progressWriteRepo;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ProgressWriteBuffer progressWriteBuffer;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ChecklistEventService eventService;
+
+  /**
+   * Flips the user's progress on an item.
+   *
+   * @return the new checked state
+   */
+  @Transactional
+  public boolean toggle(Long checklistId, Long itemId, UUID userId) {
+    requireItem(checklistId, itemId, userId);
+    participantService.join(checklistId, userId);
+    boolean checked = progressWriteBuffer.isEnabled()
+        ? progressWriteBuffer.toggle(checklistId, itemId, userId)
+        : progressWriteRepo.toggle(userId, itemId);
+    progressChanged(checklistId, itemId, userId, checked);
+    return checked;
+  }
+
+  /**
+   * Idempotently sets the user's progress on an item.
+   *
+   * @return true if the stored state changed
+   */
+  @Transactional
+  public boolean setChecked(Long checklistId, Long itemId, UUID userId, boolean checked) {
+    requireItem(checklistId, itemId, userId);
+    participantService.join(checklistId, userId);
+    boolean changed = progressWriteBuffer.isEnabled()
+        ? progressWriteBuffer.setChecked(checklistId, itemId, userId, checked)
+        : progressWriteRepo.setChecked(userId, itemId, checked);
+    // Retries of an already applied request are no-ops
+    if (changed) {
+      progressChanged(checklistId, itemId, userId, checked);
+    }
+    return changed;
+  }
+
+  /**
+   * Applies many changes to one checklist, each cell at most once.
+   */
+  @Transactional
+  public ProgressBatchResultDTO applyBatch(Long checklistId, Collection<ProgressChangeDTO> changes) {
+    Set<Long> itemIds = new HashSet<>();
+    Set<UUID> userIds = new LinkedHashSet<>();
+    for (ProgressChangeDTO change : changes) {
+      itemIds.add(change.getItemId());
+      userIds.add(change.getUserId());
+    }
+
+    // Validate that all item IDs belong to this checklist in one query
+    if (checklistItemRepo.findIdsInChecklist(checklistId, itemIds).size() != itemIds.size()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Item not found in checklist");
+    }
+
+    for (UUID userId : userIds) {
+      participantService.join(checklistId, userId);
+    }
+    // Pending single writes go first so they can't overwrite this batch later
+    progressWriteBuffer.flush();
+    List<ProgressChangeDTO> applied = progressWriteRepo.applyBatch(changes);
+
+    // The checklist's version, as in the ETag of its views
+    if (applied.isEmpty()) {
+      return new ProgressBatchResultDTO(0, statsRepo.findVersion(checklistId).orElseThrow());
+    }
+    long checkedDelta = 0;
+    for (ProgressChangeDTO change : applied) {
+      checkedDelta += change.isChecked() ? 1 : -1;
+    }
+    long version = statsRepo.recordProgress(checklistId, checkedDelta);
+    progressCache.applyProgressAfterCommit(checklistId, version, applied);
+    eventService.publish(ChecklistEventDTO.itemsToggled(checklistId, applied), version);
+    return new ProgressBatchResultDTO(applied.size(), version);
+  }
+
+  private void requireItem(Long checklistId, Long itemId, UUID userId) {
+    // A cached matrix lists the checklist's items; only an item missing from it needs a query
+    if (!progressCache.cachedHasItem(checklistId, itemId)
+        && progressWriteRepo.findChecked(checklistId, itemId, userId).isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found in checklist");
+    }
+  }
+
+  private void progressChanged(Long checklistId, Long itemId, UUID userId, boolean checked) {
+    // Written-behind changes are already cached, and are counted and published when flushed
+    if (!progressWriteBuffer.isEnabled()) {
+      long version = statsRepo.recordProgress(checklistId, checked ? 1 : -1);
+      progressCache.applyProgressAfterCommit(checklistId, version, List.of(new ProgressChangeDTO(itemId, userId, checked)));
+      eventService.publish(ChecklistEventDTO.itemToggled(checklistId, itemId, userId, checked), version);
+    }
+  }
+}
@@ -0,0 +1,356 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import com.jcw.checklist.repository.ProgressWriteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind for single progress writes, enabled by {@code checklist.write-behind.enabled}.
+ * <p>
+ * A change is acknowledged once it is in memory, in the progress cache and in the
+ * {@link ProgressAppendLog}; only the latest state per (user, item) is kept, so a double-click
+ * that flips a cell back costs no database write at all. Pending states are flushed in one
+ * transaction every {@code flush-interval-ms}, or on the writing thread once {@code max-pending}
+ * cells are waiting. The log is replayed at startup, so a crash loses nothing the page cache
+ * kept. A machine failure can lose the changes still in the page cache too, unless
+ * {@code log-sync} forces each record to disk before the write is acknowledged.
+ * <p>
+ * Checklist counters and versions are updated at flush time, so the checklist's ETag can trail
+ * a pending change by up to one flush interval. Subscribers hear of the changes then too, in one
+ * event per checklist carrying the version the flush produced. Anything that reads progress from the database
+ * directly (a cold checklist load, participant counts, batch writes) must {@link #flush} first.
+ * The buffer is per instance; only enable it where one instance serves each checklist.
+ */
+@Service
+public class ProgressWriteBuffer {
+
+  private static final Logger log = LoggerFactory.getLogger(ProgressWriteBuffer.class);
+
+  @Autowired
+  private ProgressWriteRepository progressWriteRepo;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ChecklistEventService eventService;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private MeterRegistry registry;
+
+  @Value("${checklist.write-behind.enabled:false}")
+  private boolean enabled;
+  @Value("${checklist.write-behind.max-pending:1000}")
+  private int maxPending;
+  @Value("${checklist.write-behind.log-path:data/progress-write-behind.log}")
+  private Path logPath;
+  @Value("${checklist.write-behind.log-size-bytes:4194304}")
+  private int logSizeBytes;
+  @Value("${checklist.write-behind.log-sync:false}")
+  private boolean logSync;
+
+  // Guarded by this; inFlight holds the states being flushed so reads don't fall back to stale rows
+  private Map<Cell, Pending> pending = new LinkedHashMap<>();
+  private Map<Cell, Pending> inFlight = Map.of();
+  private long flushes;
+  private ProgressAppendLog appendLog;
+
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private TransactionTemplate transactionTemplate;
+  private Counter writes;
+  private Counter flushedWrites;
+
+  private record Cell(UUID userId, long itemId) {
+  }
+
+  private static final class Pending {
+    final long checklistId;
+    boolean checked;
+
+    Pending(long checklistId, boolean checked) {
+      this.checklistId = checklistId;
+      this.checked = checked;
+    }
+  }
+
+  @PostConstruct
+  void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    // A flush may run inside a caller's transaction, whose rollback mustn't undo other writes
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    writes = Counter.builder("checklist.write-behind.writes").register(registry);
+    flushedWrites = Counter.builder("checklist.write-behind.flushed").register(registry);
+    Gauge.builder("checklist.write-behind.pending", this, ProgressWriteBuffer::pendingCount).register(registry);
+
+    appendLog = new ProgressAppendLog(logPath, logSizeBytes, logSync);
+    List<ProgressAppendLog.Entry> unflushed = appendLog.read();
+    if (!unflushed.isEmpty()) {
+      log.info("Replaying {} progress changes from {}", unflushed.size(), logPath);
+      synchronized (this) {
+        for (ProgressAppendLog.Entry entry : unflushed) {
+          pending.put(new Cell(entry.userId(), entry.itemId()), new Pending(entry.checklistId(), entry.checked()));
+        }
+      }
+      flush();
+    }
+  }
+
+  @PreDestroy
+  void stop() throws IOException {
+    if (enabled) {
+      flush();
+      appendLog.close();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Flips the user's progress on an item.
+   *
+   * @return the new checked state
+   */
+  public boolean toggle(Long checklistId, Long itemId, UUID userId) {
+    return write(checklistId, itemId, userId, null).checked();
+  }
+
+  /**
+   * Sets the user's progress on an item.
+   *
+   * @return true if the state changed
+   */
+  public boolean setChecked(Long checklistId, Long itemId, UUID userId, boolean checked) {
+    return write(checklistId, itemId, userId, checked).changed();
+  }
+
+  private record WriteResult(boolean checked, boolean changed) {
+  }
+
+  /**
+   * Records the new state of a cell; a null target flips it.
+   */
+  private WriteResult write(Long checklistId, Long itemId, UUID userId, Boolean target) {
+    Cell cell = new Cell(userId, itemId);
+    Boolean stored = null;
+    long storedAt = -1;
+    while (true) {
+      WriteResult result = null;
+      long logged = -1;
+      boolean flushNow = false;
+      synchronized (this) {
+        Boolean current = current(checklistId, cell);
+        // A read is stale if a flush finished since, it may have written this cell
+        if (current == null && storedAt == flushes) {
+          current = stored;
+        }
+        if (current != null) {
+          boolean checked = target == null ? !current : target;
+          if (checked == current) {
+            // The state may be another write's, still on its way to disk
+            result = new WriteResult(checked, false);
+            logged = appendLog.position();
+          } else {
+            logged = appendLog.append(new ProgressAppendLog.Entry(checklistId, itemId, userId, checked));
+            if (logged >= 0) {
+              Pending state = pending.get(cell);
+              if (state == null) {
+                pending.put(cell, new Pending(checklistId, checked));
+              } else {
+                state.checked = checked;
+              }
+              progressCache.applyProgress(checklistId, itemId, userId, checked);
+              writes.increment();
+              result = new WriteResult(checked, true);
+              flushNow = pending.size() >= maxPending;
+            } else {
+              // Log is full; flush to make room and try again
+              flushNow = true;
+            }
+          }
+        }
+      }
+
+      if (result != null) {
+        // Outside the lock, so other writes go on while this one waits for the disk
+        appendLog.sync(logged);
+      }
+      if (flushNow) {
+        flush();
+      }
+      if (result != null) {
+        return result;
+      }
+      if (!flushNow) {
+        // Not pending or cached; read it outside the lock, a concurrent write still wins
+        synchronized (this) {
+          storedAt = flushes;
+        }
+        stored = progressWriteRepo.findChecked(checklistId, itemId, userId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found in checklist"));
+      }
+    }
+  }
+
+  /**
+   * The cell's latest known state without a database read, or null if that needs one.
+   */
+  private Boolean current(Long checklistId, Cell cell) {
+    Pending state = pending.get(cell);
+    if (state == null) {
+      state = inFlight.get(cell);
+    }
+    if (state != null) {
+      return state.checked;
+    }
+    return progressCache.cachedProgress(checklistId, cell.itemId(), cell.userId());
+  }
+
+  @Scheduled(fixedDelayString = "${checklist.write-behind.flush-interval-ms:20}")
+  public void scheduledFlush() {
+    if (enabled) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes every pending change to the database before returning. A no-op when write-behind is off.
+   */
+  public void flush() {
+    if (!enabled) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      Map<Cell, Pending> batch;
+      synchronized (this) {
+        if (pending.isEmpty()) {
+          return;
+        }
+        batch = pending;
+        inFlight = batch;
+        pending = new LinkedHashMap<>();
+      }
+
+      boolean written = false;
+      try {
+        writeBisecting(batch);
+        written = true;
+      } catch (RuntimeException e) {
+        log.warn("Flushing {} progress changes failed, will retry", batch.size(), e);
+      }
+
+      long logged;
+      synchronized (this) {
+        inFlight = Map.of();
+        flushes++;
+        if (!written) {
+          // Newer states written meanwhile win
+          batch.putAll(pending);
+          pending = batch;
+        }
+        List<ProgressAppendLog.Entry> entries = new ArrayList<>(pending.size());
+        pending.forEach((cell, state) ->
+            entries.add(new ProgressAppendLog.Entry(state.checklistId, cell.itemId(), cell.userId(), state.checked)));
+        logged = appendLog.reset(entries);
+      }
+      if (logged < 0) {
+        log.warn("{} pending progress changes don't fit in {}; raise checklist.write-behind.log-size-bytes",
+            pendingCount(), logPath);
+      } else {
+        appendLog.sync(logged);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Writes the batch, splitting it in halves whenever a change references a row deleted meanwhile
+   * so that only such changes are dropped. Halves already written stay written if a later one
+   * fails otherwise; writing them again on the retry changes nothing.
+   */
+  private void writeBisecting(Map<Cell, Pending> batch) {
+    try {
+      writeBatch(batch);
+    } catch (DataIntegrityViolationException e) {
+      if (batch.size() == 1) {
+        // Rows that no longer exist won't appear on a retry either
+        log.error("Dropping a progress change that references a missing row: {}", batch.keySet(), e);
+        return;
+      }
+      List<Map.Entry<Cell, Pending>> entries = new ArrayList<>(batch.entrySet());
+      int half = entries.size() / 2;
+      writeBisecting(toMap(entries.subList(0, half)));
+      writeBisecting(toMap(entries.subList(half, entries.size())));
+    }
+  }
+
+  private static Map<Cell, Pending> toMap(List<Map.Entry<Cell, Pending>> entries) {
+    Map<Cell, Pending> map = new LinkedHashMap<>();
+    entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+    return map;
+  }
+
+  private void writeBatch(Map<Cell, Pending> batch) {
+    List<ProgressChangeDTO> changes = new ArrayList<>(batch.size());
+    batch.forEach((cell, state) -> changes.add(new ProgressChangeDTO(cell.itemId(), cell.userId(), state.checked)));
+
+    Map<Long, Long> versions = new HashMap<>();
+    transactionTemplate.executeWithoutResult(status -> {
+      // Only changes that altered stored state move the counters, which also makes a replay safe
+      Map<Long, List<ProgressChangeDTO>> appliedByChecklist = new HashMap<>();
+      for (ProgressChangeDTO applied : progressWriteRepo.applyBatch(changes)) {
+        long checklistId = batch.get(new Cell(applied.getUserId(), applied.getItemId())).checklistId;
+        appliedByChecklist.computeIfAbsent(checklistId, id -> new ArrayList<>()).add(applied);
+      }
+      appliedByChecklist.forEach((checklistId, applied) -> {
+        long checkedDelta = applied.stream().mapToLong(change -> change.isChecked() ? 1 : -1).sum();
+        long version = statsRepo.recordProgress(checklistId, checkedDelta);
+        versions.put(checklistId, version);
+        eventService.publish(ChecklistEventDTO.itemsToggled(checklistId, applied), version);
+      });
+    });
+    // The cache already holds these changes, and maybe newer ones; only its version catches up
+    versions.forEach(progressCache::advanceVersion);
+    flushedWrites.increment(changes.size());
+  }
+
+  private synchronized int pendingCount() {
+    return pending.size();
+  }
+}
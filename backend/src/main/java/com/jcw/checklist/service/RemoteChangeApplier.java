@@ -0,0 +1,80 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.cache.ChecklistStructureCache;
+import com.jcw.checklist.changes.ChangeBus;
+import com.jcw.checklist.changes.ChecklistChange;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Brings this node up to date with changes published on other nodes: caches are patched or
+ * evicted, new items are indexed for search, and the events go out to this node's subscribers.
+ */
+@Service
+public class RemoteChangeApplier implements ChangeBus.Listener {
+
+  private static final Logger log = LoggerFactory.getLogger(RemoteChangeApplier.class);
+
+  @Autowired
+  private ChangeBus changeBus;
+  @Autowired
+  private ChecklistEventService eventService;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ChecklistStructureCache structureCache;
+  @Autowired
+  private ItemSearchIndex searchIndex;
+
+  @PostConstruct
+  void subscribe() {
+    changeBus.subscribe(this);
+  }
+
+  @Override
+  public void received(List<ChecklistChange> changes) {
+    for (ChecklistChange change : changes) {
+      Long checklistId = change.checklistId();
+      ChecklistEventDTO delta = change.delta();
+      switch (delta.getType()) {
+        case ChecklistEventDTO.ITEM_TOGGLED -> progressCache.applyProgress(checklistId, change.version(),
+            List.of(new ProgressChangeDTO(delta.getItemId(), delta.getUserId(), delta.getChecked())));
+        case ChecklistEventDTO.ITEMS_TOGGLED -> progressCache.applyProgress(checklistId, change.version(), delta.getChanges());
+        case ChecklistEventDTO.ITEM_ADDED, ChecklistEventDTO.CHECKLIST_CREATED -> {
+          progressCache.invalidate(checklistId);
+          searchIndex.indexChecklist(checklistId);
+        }
+        case ChecklistEventDTO.CHECKLIST_UPDATED -> {
+          // Only the template flag changes, which the evictions below cover
+        }
+        default -> progressCache.invalidate(checklistId);
+      }
+      // Item order or the template flag may have changed
+      structureCache.evictChecklist(checklistId);
+      if (!ChecklistEventDTO.CHECKLIST_CREATED.equals(delta.getType())
+          && !ChecklistEventDTO.CHECKLIST_UPDATED.equals(delta.getType())) {
+        // A change too large to send in full arrives as a resync without its version
+        delta.setVersion(change.version());
+        eventService.deliver(delta);
+      }
+    }
+    // Once per batch, summaries and item lists may be stale
+    structureCache.evictQueries();
+  }
+
+  @Override
+  public void lost() {
+    log.info("Changes from other nodes may have been missed, dropping cached checklists");
+    progressCache.invalidateAll();
+    structureCache.invalidateAll();
+    eventService.resyncAll();
+  }
+}
@@ -0,0 +1,143 @@
+package com.jcw.checklist.benchmark;
+
+import com.jcw.checklist.SharedChecklistApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the default Tomcat worker pool with the {@code virtual-threads} profile against H2.
+ * <p>
+ * Each simulated viewer loops over what an open checklist page does: fetch the checklist, the
+ * summary list and the participants, and tick an item. Run with
+ * {@code ./gradlew :backend:benchmark}; {@code -Dbenchmark.viewers=50,200,800} and
+ * {@code -Dbenchmark.seconds=10} change the load.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmark {
+
+  private static final String ALICE = "11111111-1111-1111-1111-111111111111";
+
+  private final int[] viewerCounts = Arrays.stream(System.getProperty("benchmark.viewers", "50,200,800").split(","))
+      .mapToInt(Integer::parseInt).toArray();
+  private final Duration duration = Duration.ofSeconds(Long.getLong("benchmark.seconds", 10));
+  private final Duration warmup = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 3));
+
+  @Test
+  void compareThreadingModes() throws Exception {
+    List<String> rows = new ArrayList<>();
+    rows.addAll(run("platform", "dev", "h2"));
+    rows.addAll(run("virtual-threads", "dev", "h2", "virtual-threads"));
+
+    System.out.printf("%n%-16s %8s %12s %10s %10s %8s%n", "mode", "viewers", "requests/s", "p50 ms", "p99 ms", "errors");
+    rows.forEach(System.out::println);
+  }
+
+  private List<String> run(String mode, String... profiles) throws Exception {
+    List<String> rows = new ArrayList<>();
+    try (ConfigurableApplicationContext app = new SpringApplicationBuilder(SharedChecklistApplication.class)
+        .profiles(profiles)
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN")) {
+      String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api";
+      load(baseUrl, viewerCounts[0], warmup);
+      for (int viewers : viewerCounts) {
+        Result result = load(baseUrl, viewers, duration);
+        rows.add(String.format("%-16s %8d %12.0f %10.2f %10.2f %8d", mode, viewers,
+            result.requests() / (double) duration.toSeconds(), result.percentileMs(0.50), result.percentileMs(0.99),
+            result.errors()));
+      }
+    }
+    return rows;
+  }
+
+  private Result load(String baseUrl, int viewers, Duration duration) throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    AtomicLong errors = new AtomicLong();
+    List<Future<long[]>> futures = new ArrayList<>();
+    // Client threads are virtual too, so the client never caps concurrency below the viewer count
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+         HttpClient http = HttpClient.newBuilder()
+             .version(HttpClient.Version.HTTP_1_1)
+             .executor(clients)
+             .connectTimeout(Duration.ofSeconds(10))
+             .build()) {
+      for (int v = 0; v < viewers; v++) {
+        futures.add(clients.submit(() -> viewer(http, baseUrl, deadline, errors)));
+      }
+
+      long[] latencies = new long[0];
+      for (Future<long[]> future : futures) {
+        long[] viewerLatencies = future.get();
+        long[] merged = Arrays.copyOf(latencies, latencies.length + viewerLatencies.length);
+        System.arraycopy(viewerLatencies, 0, merged, latencies.length, viewerLatencies.length);
+        latencies = merged;
+      }
+      Arrays.sort(latencies);
+      return new Result(latencies, errors.get());
+    }
+  }
+
+  private long[] viewer(HttpClient http, String baseUrl, long deadline, AtomicLong errors) {
+    List<HttpRequest> page = List.of(
+        HttpRequest.newBuilder(URI.create(baseUrl + "/checklists/1")).build(),
+        HttpRequest.newBuilder(URI.create(baseUrl + "/checklists?limit=100")).build(),
+        HttpRequest.newBuilder(URI.create(baseUrl + "/checklists/1/participants")).build(),
+        HttpRequest.newBuilder(URI.create(baseUrl + "/checklists/1/item/1/user/" + ALICE + "/checked"))
+            .PUT(HttpRequest.BodyPublishers.noBody()).build(),
+        HttpRequest.newBuilder(URI.create(baseUrl + "/checklists/1/item/1/user/" + ALICE + "/checked"))
+            .DELETE().build());
+
+    long[] latencies = new long[1024];
+    int count = 0;
+    while (System.nanoTime() < deadline) {
+      for (HttpRequest request : page) {
+        long start = System.nanoTime();
+        try {
+          HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() >= 400) {
+            errors.incrementAndGet();
+          }
+        } catch (Exception e) {
+          errors.incrementAndGet();
+        }
+        if (count == latencies.length) {
+          latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = System.nanoTime() - start;
+      }
+    }
+    return Arrays.copyOf(latencies, count);
+  }
+
+  private record Result(long[] sortedLatencies, long errors) {
+    long requests() {
+      return sortedLatencies.length;
+    }
+
+    double percentileMs(double percentile) {
+      if (sortedLatencies.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+      return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.jcw.checklist.cache;
+
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChecklistProgressCacheTest {
+
+  private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+  private final ChecklistProgressCache cache = new ChecklistProgressCache(new SimpleMeterRegistry(), 10, 1000);
+
+  @Test
+  void onlyWritesToTheSameChecklistDiscardALoadInFlight() {
+    cache.get(1L, 1, () -> {
+      cache.applyProgress(2L, 10L, ALICE, true);
+      cache.invalidate(3L);
+      return emptyMatrix();
+    });
+    assertThat(cache.cachedItemCount(1L)).isZero();
+
+    cache.get(2L, 1, () -> {
+      cache.applyProgress(2L, 10L, ALICE, true);
+      return emptyMatrix();
+    });
+    assertThat(cache.cachedItemCount(2L)).isEqualTo(-1);
+  }
+
+  @Test
+  void aCommittedWriteThatHasNotReachedTheEntryForcesAReload() {
+    assertThat(cache.get(1L, 5, () -> matrix(false)).get(10L, ALICE)).isFalse();
+
+    // Version 6 is stored but its write-through hasn't run yet
+    assertThat(cache.get(1L, 6, () -> matrix(true)).get(10L, ALICE)).isTrue();
+
+    // Arriving late, it is already included
+    cache.applyProgress(1L, 6, List.of(new ProgressChangeDTO(10L, ALICE, true)));
+    assertThat(cache.get(1L, 6, () -> matrix(false)).get(10L, ALICE)).isTrue();
+
+    cache.applyProgress(1L, 7, List.of(new ProgressChangeDTO(10L, ALICE, false)));
+    assertThat(cache.get(1L, 7, () -> matrix(true)).get(10L, ALICE)).isFalse();
+
+    // Version 8 never arrived, so 9 can't be applied on top
+    cache.applyProgress(1L, 9, List.of(new ProgressChangeDTO(10L, ALICE, true)));
+    assertThat(cache.cachedItemCount(1L)).isEqualTo(-1);
+  }
+
+  private static ProgressMatrix matrix(boolean checked) {
+    ChecklistItem item = new ChecklistItem();
+    item.setId(10L);
+    User alice = new User();
+    alice.setId(ALICE);
+    ProgressMatrix matrix = ProgressMatrix.build(List.of(item), List.of(alice), List.of());
+    matrix.set(10L, ALICE, checked);
+    return matrix;
+  }
+
+  private static ProgressMatrix emptyMatrix() {
+    return ProgressMatrix.build(List.of(), List.of(), List.of());
+  }
+}
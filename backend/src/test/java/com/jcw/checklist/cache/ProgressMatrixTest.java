@@ -0,0 +1,88 @@
+package com.jcw.checklist.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.dto.ChecklistDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.model.User;
+import com.jcw.checklist.model.UserChecklistProgress;
+import com.jcw.checklist.repository.ItemProgressRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressMatrixTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void compactFormHasOneBitsetPerUser() throws Exception {
+    List<ChecklistItem> items = new ArrayList<>();
+    for (long id = 100; id < 110; id++) {
+      ChecklistItem item = new ChecklistItem();
+      item.setId(id);
+      item.setContent("Item " + id);
+      items.add(item);
+    }
+    User alice = user("11111111-1111-1111-1111-111111111111", "alice");
+    User bob = user("22222222-2222-2222-2222-222222222222", "bob");
+    ProgressMatrix matrix = ProgressMatrix.build(items, List.of(alice, bob), List.of(
+        progress(alice, 100), progress(alice, 109), progress(bob, 103)));
+
+    StringWriter out = new StringWriter();
+    try (var json = objectMapper.getFactory().createGenerator(out)) {
+      matrix.writeCompact(json);
+    }
+    JsonNode compact = objectMapper.readTree(out.toString());
+
+    assertThat(compact.get("users")).hasSize(2);
+    assertThat(compact.get("users").get(1).get("username").asText()).isEqualTo("bob");
+    assertThat(compact.get("items")).hasSize(10);
+    assertThat(compact.get("items").get(9).get("id").asLong()).isEqualTo(109);
+    // Ten items need two bytes; bit i is item i, least significant first
+    assertThat(Base64.getDecoder().decode(compact.get("checked").get(0).asText()))
+        .containsExactly(0b0000_0001, 0b0000_0010);
+    assertThat(Base64.getDecoder().decode(compact.get("checked").get(1).asText()))
+        .containsExactly(0b0000_1000, 0);
+  }
+
+  @Test
+  void fromRowsGroupsEachItemsChecks() {
+    User alice = user("11111111-1111-1111-1111-111111111111", "alice");
+    User bob = user("22222222-2222-2222-2222-222222222222", "bob");
+    UUID formerParticipant = UUID.fromString("33333333-3333-3333-3333-333333333333");
+    ProgressMatrix matrix = ProgressMatrix.fromRows(List.of(
+        new ItemProgressRow(7L, "First", alice.getId()),
+        new ItemProgressRow(7L, "First", bob.getId()),
+        new ItemProgressRow(3L, "Second", null),
+        new ItemProgressRow(5L, "Third", formerParticipant)), List.of(alice, bob));
+
+    assertThat(matrix.itemCount()).isEqualTo(3);
+    assertThat(matrix.toDTOs()).extracting(dto -> dto.id).containsExactly(7L, 3L, 5L);
+    assertThat(matrix.get(7, bob.getId())).isTrue();
+    assertThat(matrix.get(3, alice.getId())).isFalse();
+    assertThat(matrix.get(5, alice.getId())).isFalse();
+    assertThat(matrix.get(5, formerParticipant)).isNull();
+  }
+
+  private static User user(String id, String username) {
+    User user = new User();
+    user.setId(UUID.fromString(id));
+    user.setUsername(username);
+    return user;
+  }
+
+  private static UserChecklistProgress progress(User user, long itemId) {
+    UserChecklistProgress progress = new UserChecklistProgress();
+    progress.setUserId(user.getId());
+    progress.setChecklistItemId(itemId);
+    progress.setChecked(true);
+    return progress;
+  }
+}
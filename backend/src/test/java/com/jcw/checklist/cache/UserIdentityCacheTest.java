@@ -0,0 +1,61 @@
+package com.jcw.checklist.cache;
+
+import com.jcw.checklist.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserIdentityCacheTest {
+
+  private final UserIdentityCache cache = new UserIdentityCache(new SimpleMeterRegistry(), 100, 60_000);
+
+  @Test
+  void aFailedLoadReachesItsWaitersWithoutBlockingOtherKeys() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch fail = new CountDownLatch(1);
+    CompletableFuture<User> loader = CompletableFuture.supplyAsync(() -> cache.get("alice", () -> {
+      loading.countDown();
+      await(fail);
+      throw new IllegalStateException("lookup failed");
+    }));
+    loading.await();
+
+    Thread waiter = Thread.ofPlatform().unstarted(() -> cache.get("alice", User::new));
+    CompletableFuture<Throwable> waited = new CompletableFuture<>();
+    waiter.setUncaughtExceptionHandler((thread, e) -> waited.complete(e));
+    waiter.start();
+    while (waiter.getState() != Thread.State.WAITING) {
+      Thread.onSpinWait();
+    }
+
+    // Another key loads while alice's lookup is still pending
+    User bob = new User();
+    assertThat(CompletableFuture.supplyAsync(() -> cache.get("bob", () -> bob)).get(5, TimeUnit.SECONDS))
+        .isSameAs(bob);
+
+    fail.countDown();
+    assertThatThrownBy(() -> loader.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(waited.get(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class);
+
+    // The failure isn't cached
+    User alice = new User();
+    assertThat(cache.get("alice", () -> alice)).isSameAs(alice);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.jcw.checklist.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica here is a separate, empty H2 database that never receives the primary's writes, so
+ * whether a checklist is found shows which database a read went to.
+ */
+@SpringBootTest(properties = "spring.profiles.active=dev,h2,read-replica")
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void readsGoToTheReplicaExceptRightAfterTheUsersOwnWrite() throws Exception {
+    String body = mvc.perform(post("/api/checklists").header("X-Dev-User", "bob")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"Replica\",\"items\":[\"a\"]}"))
+        .andExpect(status().is2xxSuccessful())
+        .andReturn().getResponse().getContentAsString();
+    JsonNode created = objectMapper.readTree(body);
+    String url = "/api/checklists/" + created.get("id").asLong() + "/participants";
+
+    // Carol hasn't written, so she reads the replica, which doesn't have the checklist
+    mvc.perform(get(url).header("X-Dev-User", "carol")).andExpect(status().isNotFound());
+    // Bob just created it, so his reads stay on the primary
+    mvc.perform(get(url).header("X-Dev-User", "bob")).andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,293 @@
+package com.jcw.checklist.controller;
+
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.cache.ChecklistStructureCache;
+import com.jcw.checklist.cache.UserIdentityCache;
+import com.jcw.checklist.config.ProgressMatrixMessageConverter;
+import com.jcw.checklist.metrics.SqlStatementCounter;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.service.ChecklistImportService;
+import com.jcw.checklist.service.ItemSearchIndex;
+import com.jcw.checklist.service.ParticipantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins how many SQL statements each endpoint runs, so query-count regressions such as an N+1
+ * fail the build. Caches are cleared before each test, so these are cold-cache counts unless a
+ * test warms them first. If a change legitimately alters a count, update the pin here and the
+ * endpoint's {@code @SqlBudget}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+
+  private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+  private static final UUID BOB = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private UserIdentityCache identityCache;
+  @Autowired
+  private ChecklistStructureCache structureCache;
+  @Autowired
+  private ItemSearchIndex searchIndex;
+
+  private Long checklistId;
+  private List<Long> itemIds;
+
+  @BeforeEach
+  void setUp() {
+    checklistId = createChecklist(3);
+    itemIds = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(ChecklistItem::getId).toList();
+    participantService.join(checklistId, ALICE);
+    progressCache.invalidateAll();
+    identityCache.invalidateAll();
+    structureCache.invalidateAll();
+  }
+
+  @Test
+  void listChecklists() throws Exception {
+    MvcResult result = perform(get("/api/checklists"));
+    assertStatements(result, 3);
+    assertStatements(performNotModified(get("/api/checklists")
+        .header("If-None-Match", result.getResponse().getHeader("ETag"))), 1);
+    // The names now come from the query cache, the counters never do
+    assertStatements(perform(get("/api/checklists")), 2);
+  }
+
+  @Test
+  void listPagesOnlyChangeWithTheirOwnChecklists() throws Exception {
+    Long later = createChecklist(1);
+    String page = "/api/checklists?after=" + checklistId;
+    String etag = perform(get(page)).getResponse().getHeader("ETag");
+
+    // The checklist before the page changes, the page doesn't
+    perform(post(progressUrl(itemIds.get(0), ALICE) + "/toggle"));
+    performNotModified(get(page).header("If-None-Match", etag));
+
+    participantService.join(later, BOB);
+    assertThat(perform(get(page).header("If-None-Match", etag)).getResponse().getHeader("ETag")).isNotEqualTo(etag);
+  }
+
+  @Test
+  void viewChecklist() throws Exception {
+    MvcResult cold = perform(get("/api/checklists/" + checklistId));
+    assertStatements(cold, 3);
+    assertStatements(perform(get("/api/checklists/" + checklistId)), 1);
+    assertStatements(performNotModified(get("/api/checklists/" + checklistId)
+        .header("If-None-Match", cold.getResponse().getHeader("ETag"))), 1);
+  }
+
+  @Test
+  void viewChecklistMatrix() throws Exception {
+    assertStatements(perform(get("/api/checklists/" + checklistId).accept(ProgressMatrixMessageConverter.MEDIA_TYPE)), 3);
+    assertStatements(perform(get("/api/checklists/" + checklistId).accept(ProgressMatrixMessageConverter.MEDIA_TYPE)), 1);
+  }
+
+  @Test
+  void viewChecklistDoesNotGrowWithItemsOrParticipants() throws Exception {
+    Long large = createChecklist(40);
+    participantService.join(large, ALICE);
+    participantService.join(large, BOB);
+    progressCache.invalidateAll();
+
+    long smallCount = statements(perform(get("/api/checklists/" + checklistId)));
+    long largeCount = statements(perform(get("/api/checklists/" + large)));
+    assertThat(largeCount).isEqualTo(smallCount);
+  }
+
+  @Test
+  void itemPagesFollowDisplayOrder() throws Exception {
+    Long large = createChecklist(5);
+    participantService.join(large, ALICE);
+
+    MvcResult first = perform(get("/api/checklists/" + large + "/items?limit=3"));
+    assertStatements(first, 4);
+    String link = first.getResponse().getHeader("Link");
+    assertThat(link).contains("afterOrder=").endsWith("rel=\"next\"");
+    assertThat(first.getResponse().getContentAsString()).contains("Item 0", "Item 2").doesNotContain("Item 3");
+
+    MvcResult second = perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>'))));
+    assertStatements(second, 4);
+    assertThat(second.getResponse().getHeader("Link")).isNull();
+    assertThat(second.getResponse().getContentAsString())
+        .contains("Item 3", "Item 4", "\"alice\":false").doesNotContain("Item 2");
+  }
+
+  @Test
+  void streamItemsDoesNotGrowWithItems() throws Exception {
+    Long large = createChecklist(40);
+    participantService.join(large, ALICE);
+
+    MvcResult small = perform(get("/api/checklists/" + checklistId + "/items").accept(MediaType.APPLICATION_NDJSON));
+    assertStatements(small, 3);
+    MvcResult result = perform(get("/api/checklists/" + large + "/items").accept(MediaType.APPLICATION_NDJSON));
+    assertStatements(result, 3);
+    String[] lines = result.getResponse().getContentAsString().split("\n");
+    assertThat(lines).hasSize(40);
+    assertThat(lines[39]).startsWith("{\"id\":").contains("\"content\":\"Item 39\"", "\"progress\":{\"alice\":false}");
+  }
+
+  @Test
+  void toggleItem() throws Exception {
+    assertStatements(perform(post(progressUrl(itemIds.get(0), ALICE) + "/toggle")), 4);
+    // A cached matrix shows the item is in the checklist without a query
+    perform(get("/api/checklists/" + checklistId));
+    assertStatements(perform(post(progressUrl(itemIds.get(0), ALICE) + "/toggle")), 3);
+  }
+
+  @Test
+  void toggleItemJoiningChecklist() throws Exception {
+    assertStatements(perform(post(progressUrl(itemIds.get(0), BOB) + "/toggle")), 6);
+  }
+
+  @Test
+  void checkAndUncheckItem() throws Exception {
+    assertStatements(perform(put(progressUrl(itemIds.get(0), ALICE) + "/checked")), 4);
+    assertStatements(perform(delete(progressUrl(itemIds.get(0), ALICE) + "/checked")), 4);
+  }
+
+  @Test
+  void applyProgressBatch() throws Exception {
+    String changes = itemIds.stream()
+        .map(id -> "{\"itemId\":" + id + ",\"userId\":\"" + ALICE + "\",\"checked\":true}")
+        .reduce((a, b) -> a + "," + b).orElseThrow();
+    assertStatements(perform(post("/api/checklists/" + checklistId + "/progress:batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"changes\":[" + changes + "]}")), 4);
+  }
+
+  @Test
+  void reorderItems() throws Exception {
+    assertStatements(perform(put("/api/checklists/" + checklistId + "/reorder")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"itemIds\":[" + itemIds.get(2) + "," + itemIds.get(1) + "," + itemIds.get(0) + "]}")), 5);
+  }
+
+  @Test
+  void moveItem() throws Exception {
+    assertStatements(perform(put("/api/checklists/" + checklistId + "/items/" + itemIds.get(0) + "/move")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"afterItemId\":" + itemIds.get(1) + "}")), 7);
+    // The moved item and its anchor are now in the second-level cache
+    assertStatements(perform(put("/api/checklists/" + checklistId + "/items/" + itemIds.get(0) + "/move")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"afterItemId\":" + itemIds.get(2) + "}")), 5);
+  }
+
+  @Test
+  void addItem() throws Exception {
+    assertStatements(perform(post("/api/checklists/" + checklistId + "/items")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"content\":\"Another\"}")), 4);
+  }
+
+  @Test
+  void createChecklist() throws Exception {
+    assertStatements(perform(post("/api/checklists")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"name\":\"Budget\",\"items\":[\"a\",\"b\",\"c\"]}")), 5);
+  }
+
+  @Test
+  void importChecklist() throws Exception {
+    assertStatements(perform(post("/api/checklists/import?name=Budget")
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .content("{\"content\":\"a\"}\n{\"content\":\"b\"}\n{\"content\":\"c\"}\n")), 5);
+  }
+
+  @Test
+  void cloneChecklist() throws Exception {
+    String url = "/api/checklists/" + checklistId + "/clone";
+    assertStatements(perform(post(url)), 6);
+    assertStatements(perform(post(url).contentType(MediaType.APPLICATION_JSON)
+        .content("{\"name\":\"Copy\",\"resetProgress\":false}")), 8);
+  }
+
+  @Test
+  void templates() throws Exception {
+    assertStatements(perform(put("/api/checklists/" + checklistId + "/template")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"template\":true}")), 2);
+    assertStatements(perform(get("/api/checklists/templates")), 2);
+  }
+
+  @Test
+  void search() throws Exception {
+    while (!searchIndex.isReady()) {
+      Thread.sleep(10);
+    }
+    assertStatements(perform(get("/api/search").param("q", "item")), 0);
+  }
+
+  @Test
+  void participants() throws Exception {
+    String url = "/api/checklists/" + checklistId + "/participants";
+    assertStatements(perform(get(url)), 2);
+    assertStatements(perform(put(url + "/" + BOB)), 3);
+    assertStatements(perform(delete(url + "/" + BOB)), 3);
+  }
+
+  @Test
+  void currentUser() throws Exception {
+    assertStatements(perform(get("/api/user/current").header("X-Dev-User", "bob")), 1);
+    assertStatements(perform(get("/api/user/current").header("X-Dev-User", "bob")), 0);
+    assertStatements(perform(get("/api/user")), 1);
+  }
+
+  private Long createChecklist(int items) {
+    return checklistImportService.create("Budget", IntStream.range(0, items).mapToObj(i -> "Item " + i).iterator())
+        .getId();
+  }
+
+  private String progressUrl(Long itemId, UUID userId) {
+    return "/api/checklists/" + checklistId + "/item/" + itemId + "/user/" + userId;
+  }
+
+  private MvcResult perform(RequestBuilder request) throws Exception {
+    return mvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+  }
+
+  private MvcResult performNotModified(RequestBuilder request) throws Exception {
+    return mvc.perform(request).andExpect(status().isNotModified()).andReturn();
+  }
+
+  private static long statements(MvcResult result) {
+    return ((SqlStatementCounter.Counts) result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE))
+        .statements();
+  }
+
+  private static void assertStatements(MvcResult result, long expected) {
+    assertThat(statements(result)).isEqualTo(expected);
+  }
+}
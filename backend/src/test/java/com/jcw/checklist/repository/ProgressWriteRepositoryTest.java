@@ -0,0 +1,115 @@
+package com.jcw.checklist.repository;
+
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.model.UserChecklistProgress;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProgressWriteRepositoryTest {
+
+  private static final UUID CAROL = UUID.fromString("33333333-3333-3333-3333-333333333333");
+
+  @Autowired
+  private ProgressWriteRepository progressWriteRepo;
+  @Autowired
+  private UserChecklistProgressRepository progressRepo;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+
+  @Test
+  void concurrentTogglesAreNotLost() throws Exception {
+    Long itemId = checklistItemRepo.findAll().get(0).getId();
+    boolean initial = isChecked(CAROL, itemId);
+
+    int threads = 8;
+    int togglesPerThread = 25;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < togglesPerThread; i++) {
+          progressWriteRepo.toggle(CAROL, itemId);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // An even number of flips must land back where it started
+    assertThat(isChecked(CAROL, itemId)).isEqualTo(initial);
+    assertThat(progressWriteRepo.toggle(CAROL, itemId)).isEqualTo(!initial);
+  }
+
+  @Test
+  void setCheckedIsIdempotent() {
+    Long itemId = checklistItemRepo.findAll().get(1).getId();
+    progressWriteRepo.setChecked(CAROL, itemId, false);
+
+    assertThat(progressWriteRepo.setChecked(CAROL, itemId, true)).isTrue();
+    assertThat(progressWriteRepo.setChecked(CAROL, itemId, true)).isFalse();
+    assertThat(isChecked(CAROL, itemId)).isTrue();
+
+    assertThat(progressWriteRepo.setChecked(CAROL, itemId, false)).isTrue();
+    assertThat(progressWriteRepo.setChecked(CAROL, itemId, false)).isFalse();
+    assertThat(isChecked(CAROL, itemId)).isFalse();
+  }
+
+  @Test
+  void uncheckingDeletesTheRow() {
+    Long itemId = checklistItemRepo.findAll().get(2).getId();
+    UserChecklistProgress.UserChecklistProgressId id = new UserChecklistProgress.UserChecklistProgressId(CAROL, itemId);
+    progressWriteRepo.setChecked(CAROL, itemId, false);
+
+    assertThat(progressWriteRepo.toggle(CAROL, itemId)).isTrue();
+    assertThat(progressRepo.existsById(id)).isTrue();
+    assertThat(progressWriteRepo.toggle(CAROL, itemId)).isFalse();
+    assertThat(progressRepo.existsById(id)).isFalse();
+
+    progressWriteRepo.setChecked(CAROL, itemId, true);
+    assertThat(progressWriteRepo.setChecked(CAROL, itemId, false)).isTrue();
+    assertThat(progressRepo.existsById(id)).isFalse();
+  }
+
+  @Test
+  void applyBatchReturnsOnlyChangedCells() {
+    List<Long> itemIds = checklistItemRepo.findAll().stream().limit(3).map(ChecklistItem::getId).toList();
+    itemIds.forEach(itemId -> progressWriteRepo.setChecked(CAROL, itemId, false));
+    progressWriteRepo.setChecked(CAROL, itemIds.get(0), true);
+
+    List<ProgressChangeDTO> checks = itemIds.stream().map(itemId -> new ProgressChangeDTO(itemId, CAROL, true)).toList();
+    assertThat(progressWriteRepo.applyBatch(checks)).extracting(ProgressChangeDTO::getItemId)
+        .containsExactlyInAnyOrder(itemIds.get(1), itemIds.get(2));
+    assertThat(progressWriteRepo.applyBatch(checks)).isEmpty();
+
+    List<ProgressChangeDTO> unchecks = List.of(new ProgressChangeDTO(itemIds.get(1), CAROL, false),
+        new ProgressChangeDTO(itemIds.get(1) + 1_000_000, CAROL, false));
+    assertThat(progressWriteRepo.applyBatch(unchecks)).extracting(ProgressChangeDTO::getItemId)
+        .containsExactly(itemIds.get(1));
+    assertThat(isChecked(CAROL, itemIds.get(1))).isFalse();
+  }
+
+  private boolean isChecked(UUID userId, Long itemId) {
+    return progressRepo.findById(new UserChecklistProgress.UserChecklistProgressId(userId, itemId))
+        .map(UserChecklistProgress::isChecked)
+        .orElse(false);
+  }
+}
@@ -0,0 +1,119 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.dto.ChecklistSummaryDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ProgressWriteRepository;
+import com.jcw.checklist.repository.UserChecklistProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ChecklistCopyTest {
+
+  private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+  private static final UUID BOB = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ProgressWriteRepository progressWriteRepo;
+  @Autowired
+  private UserChecklistProgressRepository progressRepo;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ItemOrderService itemOrderService;
+
+  private Long sourceId;
+  private List<Long> sourceItemIds;
+
+  @BeforeEach
+  void setUp() {
+    sourceId = checklistImportService.create("Deploy", List.of("build", "test", "ship").iterator()).getId();
+    sourceItemIds = itemIds(sourceId);
+    // Out of insertion order, so the copy has to follow display order
+    itemOrderService.reorder(sourceId, List.of(sourceItemIds.get(2), sourceItemIds.get(0), sourceItemIds.get(1)));
+    sourceItemIds = itemIds(sourceId);
+    participantService.join(sourceId, ALICE);
+    participantService.join(sourceId, BOB);
+    progressWriteRepo.setChecked(ALICE, sourceItemIds.get(0), true);
+    progressWriteRepo.setChecked(BOB, sourceItemIds.get(2), true);
+  }
+
+  @Test
+  void copiesItemsInOrderWithoutProgress() {
+    ChecklistSummaryDTO copy = checklistImportService.copy(sourceId, null, false);
+
+    assertThat(copy.getName()).isEqualTo("Deploy");
+    assertThat(copy.getItemCount()).isEqualTo(3);
+    assertThat(copy.getParticipantCount()).isZero();
+    List<Long> copiedIds = itemIds(copy.getId());
+    assertThat(copiedIds).doesNotContainAnyElementsOf(sourceItemIds);
+    assertThat(contents(copy.getId())).containsExactly("ship", "build", "test");
+    assertThat(displayOrders(copy.getId())).isEqualTo(displayOrders(sourceId));
+    // One block of the sequence covers all three
+    assertThat(copiedIds.get(2) - copiedIds.get(0)).isEqualTo(2);
+    assertThat(progressRepo.countCheckedByUser(copy.getId(), ALICE)).isZero();
+  }
+
+  @Test
+  void copiesProgressAcrossIdBlocks() {
+    Long large = checklistImportService.create("Large",
+        IntStream.range(0, 120).mapToObj(i -> "Item " + i).iterator()).getId();
+    List<Long> largeIds = itemIds(large);
+    participantService.join(large, ALICE);
+    progressWriteRepo.setChecked(ALICE, largeIds.get(0), true);
+    progressWriteRepo.setChecked(ALICE, largeIds.get(75), true);
+    progressWriteRepo.setChecked(ALICE, largeIds.get(119), true);
+
+    ChecklistSummaryDTO copy = checklistImportService.copy(large, null, true);
+
+    List<Long> copiedIds = itemIds(copy.getId());
+    assertThat(copiedIds).hasSize(120).doesNotHaveDuplicates();
+    assertThat(contents(copy.getId())).isEqualTo(contents(large));
+    assertThat(copy.getCheckedCount()).isEqualTo(3);
+    assertThat(progressWriteRepo.findChecked(copy.getId(), copiedIds.get(75), ALICE)).contains(true);
+    assertThat(progressWriteRepo.findChecked(copy.getId(), copiedIds.get(119), ALICE)).contains(true);
+    assertThat(progressWriteRepo.findChecked(copy.getId(), copiedIds.get(74), ALICE)).contains(false);
+  }
+
+  @Test
+  void keepsParticipantsAndTheirProgress() {
+    ChecklistSummaryDTO copy = checklistImportService.copy(sourceId, "Deploy again", true);
+
+    assertThat(copy.getName()).isEqualTo("Deploy again");
+    assertThat(copy.getParticipantCount()).isEqualTo(2);
+    assertThat(copy.getCheckedCount()).isEqualTo(2);
+    List<Long> copiedIds = itemIds(copy.getId());
+    assertThat(progressWriteRepo.findChecked(copy.getId(), copiedIds.get(0), ALICE)).contains(true);
+    assertThat(progressWriteRepo.findChecked(copy.getId(), copiedIds.get(1), ALICE)).contains(false);
+    assertThat(progressWriteRepo.findChecked(copy.getId(), copiedIds.get(2), BOB)).contains(true);
+    assertThat(progressRepo.countCheckedByUser(copy.getId(), BOB)).isEqualTo(1);
+  }
+
+  private List<Long> itemIds(Long checklistId) {
+    return checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(ChecklistItem::getId).toList();
+  }
+
+  private List<Long> displayOrders(Long checklistId) {
+    return checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(ChecklistItem::getDisplayOrder).toList();
+  }
+
+  private List<String> contents(Long checklistId) {
+    return checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(ChecklistItem::getContent).toList();
+  }
+}
@@ -0,0 +1,71 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.dto.SearchHitDTO;
+import com.jcw.checklist.dto.SearchResultDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ItemSearchIndexTest {
+
+  @Autowired
+  private ItemSearchIndex searchIndex;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+
+  @BeforeEach
+  void waitForIndex() throws InterruptedException {
+    while (!searchIndex.isReady()) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  void tokenizeFoldsCaseAndAccents() {
+    assertThat(ItemSearchIndex.tokenize("Crème Brûlée, CRÈME-brulee 2x"))
+        .containsExactly("creme", "brulee", "2x");
+  }
+
+  @Test
+  void everyWordMustMatchAndExactBeatsPrefix() {
+    Long checklistId = checklistImportService.create("Zephyr trip", List.of(
+        "Pack zephyrine sweater", "Pack zephyr tent", "Buy zephyr stove", "Pack socks").iterator()).getId();
+    searchIndex.indexChecklist(checklistId);
+
+    SearchResultDTO result = searchIndex.search("PACK zephyr", 0, 10);
+
+    assertThat(result.getTotal()).isEqualTo(2);
+    assertThat(result.getHits()).extracting(SearchHitDTO::getContent)
+        .containsExactly("Pack zephyr tent", "Pack zephyrine sweater");
+    assertThat(result.getHits().get(0).getChecklistName()).isEqualTo("Zephyr trip");
+  }
+
+  @Test
+  void addedItemsAreFoundAndPagesAreStable() {
+    Long checklistId = checklistImportService.create("Quokka", List.of("quokka one", "quokka two").iterator()).getId();
+    searchIndex.indexChecklist(checklistId);
+    searchIndex.indexChecklist(checklistId);
+    List<Long> itemIds = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(ChecklistItem::getId).toList();
+    searchIndex.add(Long.MAX_VALUE, checklistId, "Quokka", "quokka three");
+
+    // Equal scores are ordered by item id
+    assertThat(searchIndex.search("quokka", 0, 2).getTotal()).isEqualTo(3);
+    assertThat(searchIndex.search("quokka", 0, 2).getHits()).extracting(SearchHitDTO::getItemId)
+        .containsExactlyElementsOf(itemIds);
+    assertThat(searchIndex.search("quokka", 2, 2).getHits()).extracting(SearchHitDTO::getItemId)
+        .containsExactly(Long.MAX_VALUE);
+    // Pages past the end are empty, however far past
+    assertThat(searchIndex.search("quokka", Integer.MAX_VALUE, 20).getHits()).isEmpty();
+  }
+}
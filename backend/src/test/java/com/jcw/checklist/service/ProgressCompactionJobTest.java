@@ -0,0 +1,79 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ProgressCompactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "checklist.progress.compaction.enabled=false",
+    "checklist.progress.compaction.chunk-size=2",
+    "checklist.progress.compaction.pause-ms=0"
+})
+class ProgressCompactionJobTest {
+
+  private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+  private static final UUID BOB = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  @Autowired
+  private ProgressCompactionJob compactionJob;
+  @Autowired
+  private ProgressCompactionRepository compactionRepo;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // The database is shared with other test contexts, whose startup compaction may have completed it
+  @BeforeEach
+  void resetCheckpoint() {
+    jdbcTemplate.update("UPDATE progress_compaction SET last_user_id = NULL, last_item_id = NULL, purged_rows = 0, "
+        + "completed_at = NULL WHERE id = 1");
+  }
+
+  @Test
+  void purgesUncheckedRowsAcrossChunksAndResumes() throws Exception {
+    Long checklistId = checklistImportService.create("Compaction", List.of("a", "b", "c").iterator()).getId();
+    List<Long> itemIds = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(item -> item.getId()).toList();
+    // Rows as dense storage left them
+    insert(ALICE, itemIds.get(0), false);
+    insert(ALICE, itemIds.get(1), true);
+    insert(ALICE, itemIds.get(2), false);
+    insert(BOB, itemIds.get(0), false);
+    insert(BOB, itemIds.get(2), true);
+    long before = count("NOT checked");
+
+    long purged = compactionJob.run();
+
+    assertThat(count("NOT checked")).isZero();
+    assertThat(purged).isEqualTo(before);
+    assertThat(count("checked AND checklist_item_id IN (" + itemIds.get(1) + ", " + itemIds.get(2) + ")"))
+        .isEqualTo(2);
+    assertThat(compactionRepo.findCheckpoint().completed()).isTrue();
+
+    // A completed purge is not repeated
+    insert(BOB, itemIds.get(1), false);
+    assertThat(compactionJob.run()).isEqualTo(purged);
+    assertThat(count("NOT checked")).isEqualTo(1);
+  }
+
+  private void insert(UUID userId, Long itemId, boolean checked) {
+    jdbcTemplate.update("INSERT INTO user_checklist_progress (user_id, checklist_item_id, checked) VALUES (?, ?, ?)",
+        userId, itemId, checked);
+  }
+
+  private long count(String where) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_checklist_progress WHERE " + where, Long.class);
+  }
+}
@@ -0,0 +1,71 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.dto.ProgressChangeDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ProgressServiceTest {
+
+  private static final UUID BOB = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  @Autowired
+  private ProgressService progressService;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+
+  private Long checklistId;
+  private Long otherItemId;
+
+  @BeforeEach
+  void setUp() {
+    checklistId = checklistImportService.create("Mine", List.of("a").iterator()).getId();
+    Long otherId = checklistImportService.create("Theirs", List.of("b").iterator()).getId();
+    otherItemId = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(otherId).stream()
+        .map(ChecklistItem::getId).findFirst().orElseThrow();
+  }
+
+  @Test
+  void itemsOfAnotherChecklistAreRejectedBeforeAnythingIsWritten() {
+    long version = statsRepo.findVersion(checklistId).orElseThrow();
+
+    assertThatThrownBy(() -> progressService.toggle(checklistId, otherItemId, BOB))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("Item not found in checklist");
+    assertThatThrownBy(() -> progressService.setChecked(checklistId, otherItemId, BOB, true))
+        .isInstanceOf(ResponseStatusException.class);
+
+    assertThat(participantService.participants(checklistId)).isEmpty();
+    assertThat(statsRepo.findVersion(checklistId)).contains(version);
+  }
+
+  @Test
+  void aFailedBatchLeavesNobodyJoined() {
+    Long itemId = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).get(0).getId();
+    List<ProgressChangeDTO> changes = List.of(new ProgressChangeDTO(itemId, BOB, true),
+        new ProgressChangeDTO(itemId, UUID.randomUUID(), true));
+
+    assertThatThrownBy(() -> progressService.applyBatch(checklistId, changes))
+        .isInstanceOf(DataIntegrityViolationException.class);
+    assertThat(participantService.participants(checklistId)).isEmpty();
+  }
+}
@@ -0,0 +1,155 @@
+package com.jcw.checklist.service;
+
+import com.jcw.checklist.dto.ChecklistSummaryDTO;
+import com.jcw.checklist.model.ChecklistItem;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import com.jcw.checklist.repository.ProgressWriteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "checklist.write-behind.enabled=true",
+    "checklist.write-behind.flush-interval-ms=3600000",
+    "checklist.write-behind.log-path=${java.io.tmpdir}/checklist-write-behind-${random.uuid}.log"
+})
+class ProgressWriteBufferTest {
+
+  private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+  @Autowired
+  private ProgressWriteBuffer buffer;
+  @Autowired
+  private ProgressWriteRepository progressWriteRepo;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+  @Autowired
+  private ParticipantService participantService;
+
+  private Long checklistId;
+  private Long itemId;
+
+  @BeforeEach
+  void setUp() {
+    checklistId = checklistImportService.create("Write-behind", List.of("a", "b").iterator()).getId();
+    itemId = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).get(0).getId();
+    participantService.join(checklistId, ALICE);
+  }
+
+  @Test
+  void writesAreDeferredUntilFlushed() {
+    assertThat(buffer.toggle(checklistId, itemId, ALICE)).isTrue();
+    assertThat(storedChecked()).isFalse();
+
+    buffer.flush();
+    assertThat(storedChecked()).isTrue();
+    assertThat(checkedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void flipsThatCancelOutNeverReachTheDatabase() {
+    long version = statsRepo.findVersion(checklistId).orElseThrow();
+
+    assertThat(buffer.toggle(checklistId, itemId, ALICE)).isTrue();
+    assertThat(buffer.toggle(checklistId, itemId, ALICE)).isFalse();
+    assertThat(buffer.setChecked(checklistId, itemId, ALICE, false)).isFalse();
+    buffer.flush();
+
+    assertThat(storedChecked()).isFalse();
+    assertThat(checkedCount()).isZero();
+    assertThat(statsRepo.findVersion(checklistId)).contains(version);
+  }
+
+  @Test
+  void aChangeForAMissingUserDropsOnlyThatChange() {
+    Long secondItemId = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).get(1).getId();
+    buffer.toggle(checklistId, itemId, ALICE);
+    buffer.toggle(checklistId, secondItemId, UUID.randomUUID());
+    buffer.toggle(checklistId, secondItemId, ALICE);
+    buffer.flush();
+
+    assertThat(storedChecked()).isTrue();
+    assertThat(progressWriteRepo.findChecked(checklistId, secondItemId, ALICE)).contains(true);
+    assertThat(checkedCount()).isEqualTo(2);
+  }
+
+  @Test
+  void rejectsItemsFromOtherChecklists() {
+    Long otherChecklist = checklistImportService.create("Other", List.of("c").iterator()).getId();
+    assertThatThrownBy(() -> buffer.toggle(otherChecklist, itemId, ALICE))
+        .isInstanceOf(ResponseStatusException.class);
+  }
+
+  @Test
+  void appendLogKeepsRecordsAcrossReopen(@TempDir Path dir) throws Exception {
+    Path path = dir.resolve("progress.log");
+    ProgressAppendLog.Entry first = new ProgressAppendLog.Entry(1, 2, ALICE, true);
+    ProgressAppendLog.Entry second = new ProgressAppendLog.Entry(1, 3, ALICE, false);
+
+    try (ProgressAppendLog log = new ProgressAppendLog(path, 1024, false)) {
+      assertThat(log.read()).isEmpty();
+      assertThat(log.append(first)).isPositive();
+      assertThat(log.append(second)).isPositive();
+    }
+    try (ProgressAppendLog log = new ProgressAppendLog(path, 1024, false)) {
+      assertThat(log.read()).containsExactly(first, second);
+      assertThat(log.reset(List.of(second))).isPositive();
+    }
+    try (ProgressAppendLog log = new ProgressAppendLog(path, 1024, false)) {
+      assertThat(log.read()).containsExactly(second);
+    }
+
+    try (ProgressAppendLog log = new ProgressAppendLog(dir.resolve("small.log"), ProgressAppendLog.RECORD_BYTES + 1, true)) {
+      long position = log.append(first);
+      assertThat(position).isPositive();
+      assertThat(log.append(second)).isNegative();
+      log.sync(position);
+      // A position from before a reset waits for the reset's records
+      log.sync(log.reset(List.of(first)));
+      log.sync(position);
+    }
+  }
+
+  @Test
+  void appendLogEndsAtATornRecord(@TempDir Path dir) throws Exception {
+    Path path = dir.resolve("progress.log");
+    ProgressAppendLog.Entry first = new ProgressAppendLog.Entry(1, 2, ALICE, true);
+    try (ProgressAppendLog log = new ProgressAppendLog(path, 1024, false)) {
+      log.append(first);
+      log.append(new ProgressAppendLog.Entry(1, 3, ALICE, false));
+    }
+
+    // The second record's item id as if the crash came before it reached the disk
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[ProgressAppendLog.RECORD_BYTES + 1 + Long.BYTES] ^= 1;
+    Files.write(path, bytes);
+
+    try (ProgressAppendLog log = new ProgressAppendLog(path, 1024, false)) {
+      assertThat(log.read()).containsExactly(first);
+    }
+  }
+
+  private boolean storedChecked() {
+    return progressWriteRepo.findChecked(checklistId, itemId, ALICE).orElseThrow();
+  }
+
+  private long checkedCount() {
+    return statsRepo.withCounters(List.of(new ChecklistSummaryDTO(checklistId, null))).get(0).getCheckedCount();
+  }
+}
@@ -0,0 +1,103 @@
+package com.jcw.checklist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcw.checklist.cache.ChecklistProgressCache;
+import com.jcw.checklist.changes.ChangeBus;
+import com.jcw.checklist.changes.ChecklistChange;
+import com.jcw.checklist.changes.InJvmChangeBus;
+import com.jcw.checklist.dto.ChecklistEventDTO;
+import com.jcw.checklist.repository.ChecklistItemRepository;
+import com.jcw.checklist.repository.ChecklistStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A second bus joined to the application's hub plays another node.
+ */
+@SpringBootTest
+class RemoteChangeApplierTest {
+
+  private static final UUID ALICE = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+  @Autowired
+  private ChangeBus changeBus;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private ChecklistEventService eventService;
+  @Autowired
+  private ChecklistProgressCache progressCache;
+  @Autowired
+  private ChecklistReadService checklistReadService;
+  @Autowired
+  private ChecklistImportService checklistImportService;
+  @Autowired
+  private ChecklistItemRepository checklistItemRepo;
+  @Autowired
+  private ParticipantService participantService;
+  @Autowired
+  private ChecklistStatsRepository statsRepo;
+
+  private InJvmChangeBus otherNode;
+  private Long checklistId;
+  private List<Long> itemIds;
+
+  @BeforeEach
+  void setUp() {
+    otherNode = new InJvmChangeBus(((InJvmChangeBus) changeBus).hub(), objectMapper);
+    checklistId = checklistImportService.create("Remote", List.of("a", "b").iterator()).getId();
+    itemIds = checklistItemRepo.findByChecklistIdOrderByDisplayOrderAscIdAsc(checklistId).stream()
+        .map(item -> item.getId()).toList();
+    participantService.join(checklistId, ALICE);
+  }
+
+  @Test
+  void changesFromAnotherNodeUpdateCachesAndSubscribers() {
+    long version = statsRepo.findVersion(checklistId).orElseThrow();
+    progressCache.get(checklistId, version, () -> checklistReadService.loadProgressMatrix(checklistId));
+
+    otherNode.publish(checklistId, version + 1, ChecklistEventDTO.itemToggled(checklistId, itemIds.get(1), ALICE, true));
+
+    assertThat(progressCache.cachedProgress(checklistId, itemIds.get(1), ALICE)).isTrue();
+    // Versions are the checklist's own, whichever node published them
+    assertThat(eventService.latestVersion(checklistId)).isEqualTo(version + 1);
+
+    otherNode.publish(checklistId, version + 2, ChecklistEventDTO.itemsReordered(checklistId, itemIds.reversed()));
+
+    assertThat(progressCache.cachedItemCount(checklistId)).isEqualTo(-1);
+    assertThat(eventService.latestVersion(checklistId)).isEqualTo(version + 2);
+  }
+
+  @Test
+  void eventsPublishedHereReachOtherNodes() {
+    List<ChecklistChange> received = new CopyOnWriteArrayList<>();
+    otherNode.subscribe(new ChangeBus.Listener() {
+      @Override
+      public void received(List<ChecklistChange> changes) {
+        received.addAll(changes);
+      }
+
+      @Override
+      public void lost() {
+      }
+    });
+
+    eventService.publish(ChecklistEventDTO.itemsReordered(checklistId, itemIds.reversed()), 5);
+
+    assertThat(received).singleElement().satisfies(change -> {
+      assertThat(change.checklistId()).isEqualTo(checklistId);
+      assertThat(change.version()).isEqualTo(5);
+      assertThat(change.delta().getVersion()).isEqualTo(5);
+      assertThat(change.delta().getType()).isEqualTo(ChecklistEventDTO.ITEMS_REORDERED);
+      assertThat(change.delta().getItemIds()).isEqualTo(itemIds.reversed());
+    });
+  }
+}
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import type { ChecklistItem, ChecklistSummary } from '../types/api';
+import type { ChecklistEvent, ChecklistItem, ChecklistMatrix, ChecklistSummary, ProgressBatchResult, ProgressChange, SearchResult, User } from '../types/api';
 
 // Create axios instance with default config
 const api = axios.create({
@@ -74,6 +74,20 @@ api.interceptors.response.use(
   }
 );
 
+const CHECKLIST_MATRIX = 'application/vnd.checklist.matrix+json';
+
+// Expand the compact matrix into per-item progress maps; bits are least significant first
+const expandMatrix = (matrix: ChecklistMatrix): ChecklistItem[] => {
+  const bitsets = matrix.checked.map((encoded) => Uint8Array.from(atob(encoded), (c) => c.charCodeAt(0)));
+  return matrix.items.map((item, row) => {
+    const progress: Record<string, boolean> = {};
+    matrix.users.forEach((user, column) => {
+      progress[user.username] = (bitsets[column][row >> 3] & (1 << (row & 7))) !== 0;
+    });
+    return { id: item.id, content: item.content, progress };
+  });
+};
+
 export const checklistApi = {
   async testAuth(): Promise<boolean> {
     try {
@@ -94,20 +108,62 @@ export const checklistApi = {
     return response.data;
   },
 
-  async getAllChecklists(): Promise<ChecklistSummary[]> {
-    const response = await api.get('/checklists');
+  async getParticipants(checklistId: number): Promise<User[]> {
+    const response = await api.get(`/checklists/${checklistId}/participants`);
     return response.data;
   },
 
-  async getChecklist(checklistId: number): Promise<ChecklistItem[]> {
-    const response = await api.get(`/checklists/${checklistId}`);
+  async joinChecklist(checklistId: number, userId: string): Promise<void> {
+    await api.put(`/checklists/${checklistId}/participants/${userId}`);
+  },
+
+  async leaveChecklist(checklistId: number, userId: string): Promise<void> {
+    await api.delete(`/checklists/${checklistId}/participants/${userId}`);
+  },
+
+  // One keyset page of checklists with ids greater than `after`
+  async getChecklistPage(after = 0, limit = 100): Promise<ChecklistSummary[]> {
+    const response = await api.get('/checklists', { params: { after, limit } });
     return response.data;
   },
 
+  // Fetched in the compact format, which doesn't repeat every username for every item
+  async getChecklist(checklistId: number): Promise<ChecklistItem[]> {
+    const response = await api.get<ChecklistMatrix>(`/checklists/${checklistId}`, {
+      headers: { 'Accept': CHECKLIST_MATRIX },
+    });
+    return expandMatrix(response.data);
+  },
+
+  // Stream deltas for a checklist; EventSource resumes from Last-Event-ID on reconnect
+  subscribeToChecklist(checklistId: number, onEvent: (event: ChecklistEvent) => void): () => void {
+    const source = new EventSource(`/api/checklists/${checklistId}/events`, { withCredentials: true });
+    const listener = (message: MessageEvent) => onEvent(JSON.parse(message.data));
+    for (const type of ['item-toggled', 'items-toggled', 'items-reordered', 'item-moved', 'item-added', 'participant-joined', 'participant-left', 'resync']) {
+      source.addEventListener(type, listener);
+    }
+    return () => source.close();
+  },
+
   async toggleItem(checklistId: number, itemId: number, userId: string): Promise<void> {
     await api.post(`/checklists/${checklistId}/item/${itemId}/user/${userId}/toggle`);
   },
 
+  // Idempotent alternative to toggleItem, safe to retry
+  async setItemChecked(checklistId: number, itemId: number, userId: string, checked: boolean): Promise<void> {
+    const url = `/checklists/${checklistId}/item/${itemId}/user/${userId}/checked`;
+    if (checked) {
+      await api.put(url);
+    } else {
+      await api.delete(url);
+    }
+  },
+
+  async applyProgressBatch(checklistId: number, changes: ProgressChange[]): Promise<ProgressBatchResult> {
+    const response = await api.post(`/checklists/${checklistId}/progress:batch`, { changes });
+    return response.data;
+  },
+
   async createChecklist(name: string, items: string[]): Promise<ChecklistSummary> {
     const response = await api.post('/checklists', {
       name: name,
@@ -116,18 +172,46 @@ export const checklistApi = {
     return response.data;
   },
 
+  // Copies the checklist's items on the server; keeps participants and progress unless resetProgress
+  async cloneChecklist(checklistId: number, name?: string, resetProgress = true): Promise<ChecklistSummary> {
+    const response = await api.post(`/checklists/${checklistId}/clone`, { name, resetProgress });
+    return response.data;
+  },
+
+  async getTemplates(): Promise<ChecklistSummary[]> {
+    const response = await api.get('/checklists/templates');
+    return response.data;
+  },
+
+  async setTemplate(checklistId: number, template: boolean): Promise<void> {
+    await api.put(`/checklists/${checklistId}/template`, { template });
+  },
+
   async reorderItems(checklistId: number, itemIds: number[]): Promise<void> {
     await api.put(`/checklists/${checklistId}/reorder`, {
       itemIds: itemIds
     });
   },
 
+  async moveItem(checklistId: number, itemId: number, afterItemId: number | null, beforeItemId: number | null): Promise<void> {
+    await api.put(`/checklists/${checklistId}/items/${itemId}/move`, {
+      afterItemId: afterItemId,
+      beforeItemId: beforeItemId
+    });
+  },
+
   async addItemToChecklist(checklistId: number, content: string): Promise<ChecklistItem> {
     const response = await api.post(`/checklists/${checklistId}/items`, {
       content: content
     });
     return response.data;
   },
+
+  // Items across all checklists matching every word of the query, best first
+  async searchItems(q: string, offset = 0, limit = 20): Promise<SearchResult> {
+    const response = await api.get('/search', { params: { q, offset, limit } });
+    return response.data;
+  },
 };
 
 export default api; 
\ No newline at end of file
@@ -4,9 +4,57 @@ export interface ChecklistItem {
   progress: Record<string, boolean>; // username -> checked status
 }
 
+// Compact form of a checklist's progress; checked[u] is a base64 bitset where bit i is items[i]
+export interface ChecklistMatrix {
+  users: User[];
+  items: { id: number; content: string }[];
+  checked: string[];
+}
+
 export interface ChecklistSummary {
   id: number;
   name: string;
+  itemCount?: number;
+  participantCount?: number;
+  checkedCount?: number; // checked item x participant cells
+}
+
+export interface ProgressChange {
+  itemId: number;
+  userId: string;
+  checked: boolean;
+}
+
+export interface ProgressBatchResult {
+  applied: number;
+  version: number;
+}
+
+export interface ChecklistEvent {
+  type: 'item-toggled' | 'items-toggled' | 'items-reordered' | 'item-moved' | 'item-added' | 'participant-joined' | 'participant-left' | 'resync';
+  version: number;
+  checklistId: number;
+  itemId?: number;
+  userId?: string;
+  checked?: boolean;
+  content?: string;
+  displayOrder?: number;
+  afterItemId?: number;
+  itemIds?: number[];
+  changes?: ProgressChange[];
+}
+
+export interface SearchHit {
+  itemId: number;
+  checklistId: number;
+  checklistName: string;
+  content: string;
+  score: number;
+}
+
+export interface SearchResult {
+  total: number; // matches across all pages
+  hits: SearchHit[];
 }
 
 export interface User {